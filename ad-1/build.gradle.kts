@@ -9,15 +9,44 @@ repositories {
     mavenCentral()
 }
 
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// the tests run every benchmark once in-process to keep the suite from rotting
+sourceSets.test {
+    compileClasspath += jmh.output
+    runtimeClasspath += jmh.output
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testImplementation("org.openjdk.jmh:jmh-core:1.37")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks, pass a filter with -Pjmh.includes=<regex>"
+    mainClass.set("org.openjdk.jmh.Main")
+    classpath = jmh.runtimeClasspath
+    val includes = project.findProperty("jmh.includes")?.toString() ?: ".*"
+    val results = layout.buildDirectory.file("reports/jmh/results.csv")
+    args(includes, "-prof", "gc", "-rf", "csv", "-rff", results.get().asFile.absolutePath)
+    doFirst {
+        results.get().asFile.parentFile.mkdirs()
+    }
+}
+
 tasks.withType<Jar> {
     manifest {
         attributes["Main-Class"] = "dev.ua.ikeepcalm.Main"
@@ -0,0 +1,27 @@
+package dev.ua.ikeepcalm.solution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+final class BenchmarkFiles {
+
+    private BenchmarkFiles() {
+    }
+
+    static File directory() throws IOException {
+        File directory = Files.createTempDirectory("polyphase-jmh").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
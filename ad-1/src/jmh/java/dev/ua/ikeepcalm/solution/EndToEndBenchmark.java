@@ -0,0 +1,57 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.TextRunReader;
+import dev.ua.ikeepcalm.solution.io.TextRunWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// throughput mode, since JMH drops OPERATIONS aux counters for single-shot runs and megabytes would never reach the report;
+// iterations are long enough to hold a few whole sorts of the largest input
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"16", "64"})
+    public int sizeInMB;
+
+    @Param({"4", "16"})
+    public int memoryInMB;
+
+    @Param({"TEXT", "INT32"})
+    public RunFormat format;
+
+    private File directory;
+    private File input;
+    private File output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFiles.directory();
+        input = new File(directory, "input.txt");
+        output = new File(directory, "sorted.txt");
+        Generator.generateTestFile(input.getPath(), sizeInMB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    public void sort(Throughput throughput) throws IOException {
+        int availableMemory = memoryInMB * 1024 * 1024;
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", Polyphase.chooseTapeCount(availableMemory), format), availableMemory, format);
+        try (TextRunReader reader = new TextRunReader(input)) {
+            sorter.sort(reader, () -> new TextRunWriter(output));
+        }
+        throughput.add(input.length());
+    }
+}
@@ -0,0 +1,52 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+    private static final int RECORDS = 8_000_000;
+    private static final int MEMORY = 1024 * 1024;
+
+    @Param({"3", "5", "17"})
+    public int tapes;
+
+    @Param({"INT32", "DELTA_VARINT"})
+    public RunFormat format;
+
+    private int[] values;
+    private File directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        values = new Random(42).ints(RECORDS).toArray();
+        directory = BenchmarkFiles.directory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void sortAndMerge(Throughput throughput, Blackhole blackhole) throws IOException {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", tapes, format), MEMORY, format);
+        sorter.sort(new IteratorRunReader(Arrays.stream(values).iterator()), () -> new ConsumerRunWriter(blackhole::consume));
+        throughput.add((long) RECORDS * Integer.BYTES);
+    }
+}
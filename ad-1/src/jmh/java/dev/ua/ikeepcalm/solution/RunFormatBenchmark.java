@@ -0,0 +1,77 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunFormatBenchmark {
+    private static final int RECORDS = 1_000_000;
+
+    // <format>/<backend>, listed by hand since direct I/O only takes the fixed-width formats
+    @Param({"TEXT/STREAM", "TEXT/MAPPED",
+            "INT32/STREAM", "INT32/MAPPED", "INT32/DIRECT",
+            "INT64/STREAM", "INT64/MAPPED", "INT64/DIRECT",
+            "DELTA_VARINT/STREAM", "DELTA_VARINT/MAPPED"})
+    public String storageOption;
+
+    private int[] values;
+    private File directory;
+    private File runFile;
+    private RunStorage storage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        values = new Random(42).ints(RECORDS, 0, 1_000_000).toArray();
+        Arrays.sort(values);
+        String[] option = storageOption.split("/");
+        RunFormat format = RunFormat.parse(option[0]);
+        directory = BenchmarkFiles.directory();
+        runFile = new File(directory, "run" + format.getExtension());
+        storage = new RunStorage(format, IoBackend.parse(option[1]));
+        write(new Throughput());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void write(Throughput throughput) throws IOException {
+        try (RunWriter writer = storage.openWriter(runFile)) {
+            for (int value : values) {
+                writer.write(value);
+            }
+        }
+        throughput.add(runFile.length());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long read(Throughput throughput) throws IOException {
+        long sum = 0;
+        try (RunReader reader = storage.openReader(runFile)) {
+            while (reader.hasNext()) {
+                sum += reader.next();
+            }
+        }
+        throughput.add(runFile.length());
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RunGenerationBenchmark {
+    private static final int RECORDS = 4_000_000;
+
+    @Param({"LOAD_SORT", "REPLACEMENT_SELECTION", "PIPELINED"})
+    public RunGeneration strategy;
+
+    @Param({"1048576", "8388608"})
+    public int availableMemory;
+
+    private int[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Random(42).ints(RECORDS).toArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int generateRuns(Throughput throughput, Blackhole blackhole) throws IOException {
+        int[] runs = new int[1];
+        RunWriter discard = new ConsumerRunWriter(blackhole::consume);
+        RunGenerator generator = strategy.create(availableMemory);
+        generator.generate(new IteratorRunReader(Arrays.stream(values).iterator()), new RunSink() {
+            @Override
+            public RunWriter beginRun() {
+                runs[0]++;
+                return discard;
+            }
+
+            @Override
+            public void endRun(long length) {
+            }
+        });
+        throughput.add((long) RECORDS * Integer.BYTES);
+        return runs[0];
+    }
+}
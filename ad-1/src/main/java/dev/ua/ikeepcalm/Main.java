@@ -1,9 +1,22 @@
 package dev.ua.ikeepcalm;
 
 import dev.ua.ikeepcalm.solution.Generator;
+import dev.ua.ikeepcalm.solution.MergeMode;
 import dev.ua.ikeepcalm.solution.Polyphase;
+import dev.ua.ikeepcalm.solution.RunGeneration;
+import dev.ua.ikeepcalm.solution.ValueDistribution;
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.records.CsvCodec;
+import dev.ua.ikeepcalm.solution.records.ExternalSorter;
+import dev.ua.ikeepcalm.solution.records.Keys;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class Main {
 
@@ -11,6 +24,23 @@ public class Main {
         System.out.println("External Sort Version 1.0");
     }
 
+    private static Map<String, String> parseOptions(String[] args, int from) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
     public static void main(String[] args) {
         if (args.length < 1) {
             System.out.println("Usage: <command> [options]");
@@ -24,21 +54,28 @@ public class Main {
                 printVersion();
                 break;
             case "generate":
-                if (args.length != 3) {
-                    System.out.println("Usage: generate <filename> <size_in_mb>");
+                if (args.length < 3) {
+                    System.out.println("Usage: generate <filename> <size_in_mb> [--distribution=uniform|zipf|log_uniform|sorted|reverse_sorted|nearly_sorted|duplicates] [--format=text|int32|int64] [--threads=<count>] [--seed=<seed>]");
                     return;
                 }
                 String filename = args[1];
                 int sizeInMB = Integer.parseInt(args[2]);
+                Map<String, String> generateOptions = parseOptions(args, 3);
                 try {
-                    Generator.generateTestFile(filename, sizeInMB);
+                    long generateStart = System.currentTimeMillis();
+                    Generator.generate(filename, sizeInMB * 1024L * 1024L,
+                            ValueDistribution.parse(generateOptions.getOrDefault("distribution", "uniform")),
+                            RunFormat.parse(generateOptions.getOrDefault("format", "text")),
+                            Integer.parseInt(generateOptions.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                            generateOptions.containsKey("seed") ? Long.parseLong(generateOptions.get("seed")) : System.nanoTime());
+                    System.out.println("Generation took " + (System.currentTimeMillis() - generateStart) + " ms");
                 } catch (IOException e) {
                     System.out.println("Error generating file: " + e.getMessage());
                 }
                 break;
             case "sort":
                 if (args.length < 3) {
-                    System.out.println("Usage: <inputFile> <memoryInMB>");
+                    System.out.println("Usage: <inputFile> <memoryInMB> [--format=text|int32|int64|delta_varint] [--tapes=auto|<count>] [--runs=load_sort|replacement_selection|pipelined] [--parallel=<groups>] [--io=stream|mapped|direct (int32|int64 only)] [--mode=sort|distinct|count|sum] [--top=<k> [--largest]] [--checkpoint]");
                     System.exit(1);
                 }
 
@@ -47,11 +84,26 @@ public class Main {
 
                 int availableMemory = memoryInMB * 1024 * 1024;
 
+                Map<String, String> options = parseOptions(args, 3);
+                RunFormat runFormat = RunFormat.parse(options.getOrDefault("format", "text"));
+                int parallelism = Integer.parseInt(options.getOrDefault("parallel", "1"));
+                String tapesOption = options.getOrDefault("tapes", "auto");
+                int tapeCount = tapesOption.equals("auto") ? Polyphase.chooseTapeCount(availableMemory / parallelism) : Integer.parseInt(tapesOption);
+
+                List<String> auxiliaryFiles = Polyphase.auxiliaryFiles(null, "temp", tapeCount, runFormat);
+
                 long startTime = System.currentTimeMillis();
 
-                Polyphase sorter = new Polyphase(inputFile, "tempOne.txt", "tempTwo.txt", "tempThree.txt", availableMemory);
+                Polyphase sorter = new Polyphase(inputFile, auxiliaryFiles, availableMemory, runFormat);
+                sorter.setParallelism(parallelism);
+                sorter.setIoBackend(IoBackend.parse(options.getOrDefault("io", "stream")));
+                sorter.setRunGeneration(RunGeneration.parse(options.getOrDefault("runs", "load_sort")));
+                sorter.setMergeMode(MergeMode.parse(options.getOrDefault("mode", "sort")));
+                sorter.setTopK(Long.parseLong(options.getOrDefault("top", "0")), options.containsKey("largest"));
+                sorter.setCheckpointing(options.containsKey("checkpoint"));
                 try {
                     sorter.sort();
+                    System.out.println("Stats: " + sorter.getLastStats());
                 } catch (IOException e) {
                     System.out.println("Error sorting file: " + e.getMessage());
                 }
@@ -60,6 +112,33 @@ public class Main {
 
                 System.out.println("Sorting took " + (endTime - startTime) + " ms");
 
+                break;
+            case "sort-csv":
+                if (args.length < 4) {
+                    System.out.println("Usage: sort-csv <inputFile> <memoryInMB> <column> [--delimiter=,] [--numeric]");
+                    System.exit(1);
+                }
+
+                Map<String, String> csvOptions = parseOptions(args, 4);
+                int column = Integer.parseInt(args[3]);
+                CsvCodec codec = new CsvCodec(csvOptions.getOrDefault("delimiter", ",").charAt(0));
+                int csvMemory = Integer.parseInt(args[2]) * 1024 * 1024;
+
+                ExternalSorter<String[]> csvSorter;
+                if (csvOptions.containsKey("numeric")) {
+                    csvSorter = new ExternalSorter<>(codec, fields -> Long.parseLong(fields[column].trim()), csvMemory);
+                } else {
+                    csvSorter = new ExternalSorter<>(codec, fields -> Keys.stringPrefix(fields[column]), Comparator.comparing(fields -> fields[column]), csvMemory);
+                }
+
+                long csvStart = System.currentTimeMillis();
+                try {
+                    csvSorter.sort(new File(args[1]), new File("sorted.txt"));
+                    System.out.println("Sorted file: " + new File("sorted.txt").getAbsolutePath());
+                } catch (IOException e) {
+                    System.out.println("Error sorting file: " + e.getMessage());
+                }
+                System.out.println("Sorting took " + (System.currentTimeMillis() - csvStart) + " ms");
                 break;
             default:
                 System.out.println("Unknown command: " + command);
@@ -0,0 +1,57 @@
+package dev.ua.ikeepcalm.solution;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+class Checkpoint {
+    static final String DISTRIBUTED = "DISTRIBUTED";
+    static final String MERGING = "MERGING";
+    static final String MERGED = "MERGED";
+
+    private final File manifest;
+    private final Properties identity;
+
+    Checkpoint(File manifest, Properties identity) {
+        this.manifest = manifest;
+        this.identity = identity;
+    }
+
+    Properties load() throws IOException {
+        if (!manifest.exists()) {
+            return null;
+        }
+        Properties state = new Properties();
+        try (Reader reader = new FileReader(manifest)) {
+            state.load(reader);
+        }
+        for (String key : identity.stringPropertyNames()) {
+            if (!identity.getProperty(key).equals(state.getProperty(key))) {
+                System.out.println("Ignoring stale checkpoint " + manifest.getName() + ": " + key + " changed");
+                return null;
+            }
+        }
+        return state;
+    }
+
+    void save(Properties state) throws IOException {
+        Properties content = new Properties();
+        content.putAll(identity);
+        content.putAll(state);
+        File temporary = new File(manifest.getPath() + ".tmp");
+        try (Writer writer = new FileWriter(temporary)) {
+            content.store(writer, "Polyphase checkpoint");
+        }
+        Files.move(temporary.toPath(), manifest.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void delete() {
+        manifest.delete();
+    }
+}
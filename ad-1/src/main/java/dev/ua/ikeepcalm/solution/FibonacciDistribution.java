@@ -0,0 +1,58 @@
+package dev.ua.ikeepcalm.solution;
+
+class FibonacciDistribution {
+    private final Tape[] tapes;
+    private final int[] perfect;
+    private final int[] missing;
+    private int level;
+    private int current = -1;
+
+    FibonacciDistribution(Tape[] tapes) {
+        this.tapes = tapes;
+        int inputs = tapes.length - 1;
+        this.perfect = new int[inputs + 1];
+        this.missing = new int[inputs + 1];
+        for (int i = 0; i < inputs; i++) {
+            perfect[i] = 1;
+            missing[i] = 1;
+        }
+        this.level = 1;
+    }
+
+    Tape nextTape() {
+        if (current < 0) {
+            current = 0;
+        } else if (missing[current] < missing[current + 1]) {
+            current++;
+        } else {
+            if (missing[current] == 0) {
+                raiseLevel();
+            }
+            current = 0;
+        }
+        missing[current]--;
+        return tapes[current];
+    }
+
+    private void raiseLevel() {
+        level++;
+        int first = perfect[0];
+        for (int i = 0; i < tapes.length - 1; i++) {
+            missing[i] = first + perfect[i + 1] - perfect[i];
+            perfect[i] = first + perfect[i + 1];
+        }
+    }
+
+    void finish() {
+        if (current < 0) {
+            return;
+        }
+        for (int i = 0; i < tapes.length - 1; i++) {
+            tapes[i].dummyRuns = missing[i];
+        }
+    }
+
+    int getLevel() {
+        return current < 0 ? 0 : level;
+    }
+}
@@ -1,29 +1,204 @@
 package dev.ua.ikeepcalm.solution;
 
-import java.io.BufferedWriter;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Random;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Generator {
+    public static final int DEFAULT_BOUND = 1000000;
+    private static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+    private static final int MAX_SEGMENTS = 256;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_LINE = 12;
 
     public static void generateTestFile(String filename, int sizeInMB) throws IOException {
+        generate(filename, sizeInMB * 1024L * 1024L, ValueDistribution.UNIFORM, RunFormat.TEXT,
+                Runtime.getRuntime().availableProcessors(), new SplittableRandom().nextLong());
+    }
+
+    public static void generate(String filename, long sizeInBytes, ValueDistribution distribution, RunFormat format, int threads, long seed) throws IOException {
+        if (format == RunFormat.DELTA_VARINT) {
+            throw new IllegalArgumentException("Generator writes text or fixed-width binary files only");
+        }
+
+        if (format.isFixedWidth()) {
+            sizeInBytes -= sizeInBytes % format.getRecordSize();
+        }
+
+        // the split depends on the size alone, so a seed produces the same file whatever the thread count
+        int segments = (int) Math.max(1, Math.min(MAX_SEGMENTS, sizeInBytes / MIN_SEGMENT_SIZE));
+        long segmentSize = sizeInBytes / segments;
+        if (format.isFixedWidth()) {
+            segmentSize -= segmentSize % format.getRecordSize();
+        }
+
         File file = new File(filename);
-        Random random = new Random();
+        SplittableRandom root = new SplittableRandom(seed);
+        Segment[] parts = new Segment[segments];
+        for (int s = 0; s < segments; s++) {
+            long budget = s == segments - 1 ? sizeInBytes - segmentSize * (segments - 1) : segmentSize;
+            parts[s] = new Segment(distribution, root.nextLong(), s, segments, budget);
+        }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            long sizeInBytes = sizeInMB * 1024L * 1024L;
-            long writtenBytes = 0;
+        long[] positions = new long[segments];
+        if (format.isFixedWidth()) {
+            for (int s = 0; s < segments; s++) {
+                positions[s] = s * segmentSize;
+            }
+        } else {
+            // text lines vary in length, so a counting pass replays each segment's values to find where it starts
+            long[] lengths = new long[segments];
+            List<Callable<Void>> sizing = new ArrayList<>();
+            for (int s = 0; s < segments; s++) {
+                int index = s;
+                sizing.add(() -> {
+                    lengths[index] = parts[index].textLength();
+                    return null;
+                });
+            }
+            runAll(sizing, threads);
+            for (int s = 1; s < segments; s++) {
+                positions[s] = positions[s - 1] + lengths[s - 1];
+            }
+        }
 
-            while (writtenBytes < sizeInBytes) {
-                int number = random.nextInt(1000000);
-                writer.write(String.valueOf(number));
-                writer.newLine();
-                writtenBytes += String.valueOf(number).length() + 1;
+        try (FileChannel output = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int s = 0; s < segments; s++) {
+                Segment segment = parts[s];
+                long position = positions[s];
+                tasks.add(() -> {
+                    if (format.isFixedWidth()) {
+                        segment.writeBinary(output, position, format.getRecordSize());
+                    } else {
+                        segment.writeText(output, position);
+                    }
+                    return null;
+                });
             }
+            runAll(tasks, threads);
         }
 
         System.out.println("Test file " + filename + " generated successfully.");
     }
+
+    private static void runAll(List<Callable<Void>> tasks, int threads) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Segment {
+        private final ValueDistribution distribution;
+        private final long seed;
+        private final int index;
+        private final int segments;
+        private final long budget;
+        private final byte[] digits = new byte[MAX_LINE];
+
+        Segment(ValueDistribution distribution, long seed, int index, int segments, long budget) {
+            this.distribution = distribution;
+            this.seed = seed;
+            this.index = index;
+            this.segments = segments;
+            this.budget = budget;
+        }
+
+        private int next(SplittableRandom random, long written) {
+            double progress = (index + (double) written / budget) / segments;
+            return distribution.next(random, progress, DEFAULT_BOUND);
+        }
+
+        // every pass starts from the segment's seed, so the counting pass sees the values the writing pass writes
+        long textLength() {
+            SplittableRandom random = new SplittableRandom(seed);
+            long written = 0;
+            while (written < budget) {
+                written += lineLength(next(random, written));
+            }
+            return written;
+        }
+
+        private static int lineLength(int value) {
+            int length = 2;
+            while (value >= 10) {
+                value /= 10;
+                length++;
+            }
+            return length;
+        }
+
+        void writeBinary(FileChannel channel, long position, int recordSize) throws IOException {
+            SplittableRandom random = new SplittableRandom(seed);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (long written = 0; written < budget; written += recordSize) {
+                if (buffer.remaining() < recordSize) {
+                    position = flush(channel, buffer, position);
+                }
+                if (recordSize == Integer.BYTES) {
+                    buffer.putInt(next(random, written));
+                } else {
+                    buffer.putLong(next(random, written));
+                }
+            }
+            flush(channel, buffer, position);
+        }
+
+        void writeText(FileChannel channel, long position) throws IOException {
+            SplittableRandom random = new SplittableRandom(seed);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long written = 0;
+            while (written < budget) {
+                if (buffer.remaining() < MAX_LINE) {
+                    position = flush(channel, buffer, position);
+                }
+                int value = next(random, written);
+                int start = MAX_LINE;
+                digits[--start] = '\n';
+                do {
+                    digits[--start] = (byte) ('0' + value % 10);
+                    value /= 10;
+                } while (value > 0);
+                buffer.put(digits, start, MAX_LINE - start);
+                written += MAX_LINE - start;
+            }
+            flush(channel, buffer, position);
+        }
+
+        private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+            return position;
+        }
+    }
 }
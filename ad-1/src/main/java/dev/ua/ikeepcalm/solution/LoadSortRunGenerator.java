@@ -0,0 +1,48 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+class LoadSortRunGenerator implements RunGenerator {
+    private final int[] buffer;
+    private int preloaded;
+
+    LoadSortRunGenerator(int[] buffer, int preloaded) {
+        this.buffer = buffer;
+        this.preloaded = preloaded;
+    }
+
+    @Override
+    public void generate(RunReader input, RunSink sink) throws IOException {
+        int size = preloaded;
+        preloaded = 0;
+        if (size == buffer.length) {
+            sortAndWriteChunk(size, sink);
+            size = 0;
+        }
+        while (input.hasNext()) {
+            buffer[size++] = input.next();
+            if (size == buffer.length) {
+                System.out.println("Sorting chunk...");
+                sortAndWriteChunk(size, sink);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            sortAndWriteChunk(size, sink);
+        }
+    }
+
+    private void sortAndWriteChunk(int size, RunSink sink) throws IOException {
+        Arrays.parallelSort(buffer, 0, size);
+
+        RunWriter writer = sink.beginRun();
+        for (int i = 0; i < size; i++) {
+            writer.write(buffer[i]);
+        }
+        sink.endRun(size);
+    }
+}
@@ -0,0 +1,115 @@
+package dev.ua.ikeepcalm.solution;
+
+public class LoserTree {
+    private final int[] tree;
+    private final int[] heads;
+    private final boolean[] exhausted;
+    private final SourceOrder order;
+    private int size;
+
+    // sources whose heads are not ints keep them outside the tree and compare them through order
+    public interface SourceOrder {
+        int compare(int a, int b);
+    }
+
+    LoserTree(int capacity) {
+        this(capacity, null);
+    }
+
+    public LoserTree(int capacity, SourceOrder order) {
+        this.tree = new int[Math.max(1, capacity)];
+        this.heads = new int[capacity];
+        this.exhausted = new boolean[capacity];
+        this.order = order;
+    }
+
+    public void reset(int size) {
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            exhausted[i] = true;
+        }
+    }
+
+    void set(int source, int head) {
+        heads[source] = head;
+        exhausted[source] = false;
+    }
+
+    public void set(int source) {
+        exhausted[source] = false;
+    }
+
+    public void build() {
+        if (size > 0) {
+            tree[0] = build(1);
+        }
+    }
+
+    private int build(int node) {
+        if (node >= size) {
+            return node - size;
+        }
+        int left = build(2 * node);
+        int right = build(2 * node + 1);
+        if (less(left, right)) {
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    public boolean isEmpty() {
+        return size == 0 || exhausted[tree[0]];
+    }
+
+    public int winner() {
+        return tree[0];
+    }
+
+    int winnerValue() {
+        return heads[tree[0]];
+    }
+
+    void replaceWinner(int head) {
+        heads[tree[0]] = head;
+        adjust();
+    }
+
+    // the winner's source moved on to its next head
+    public void advanceWinner() {
+        adjust();
+    }
+
+    public void exhaustWinner() {
+        exhausted[tree[0]] = true;
+        adjust();
+    }
+
+    private void adjust() {
+        int winner = tree[0];
+        for (int node = (winner + size) >> 1; node > 0; node >>= 1) {
+            if (less(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    // ties go to the lower source, which keeps merges stable
+    private boolean less(int a, int b) {
+        if (exhausted[a]) {
+            return false;
+        }
+        if (exhausted[b]) {
+            return true;
+        }
+        if (order != null) {
+            int result = order.compare(a, b);
+            return result < 0 || (result == 0 && a < b);
+        }
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+}
@@ -0,0 +1,16 @@
+package dev.ua.ikeepcalm.solution;
+
+public enum MergeMode {
+    SORT,
+    DISTINCT,
+    COUNT,
+    SUM;
+
+    boolean isAggregating() {
+        return this == COUNT || this == SUM;
+    }
+
+    public static MergeMode parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
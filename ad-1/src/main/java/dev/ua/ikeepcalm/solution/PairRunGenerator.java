@@ -0,0 +1,61 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+class PairRunGenerator implements RunGenerator {
+    private final long[] buffer;
+    private int preloaded;
+
+    // the first preloaded slots of buffer already hold the earliest packed pairs
+    PairRunGenerator(long[] buffer, int preloaded) {
+        this.buffer = buffer;
+        this.preloaded = preloaded;
+    }
+
+    // key in the high half, so packed pairs sort by key
+    static long pack(int key, int value) {
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    static void write(long pair, RunWriter writer) throws IOException {
+        writer.write((int) (pair >> 32));
+        writer.write((int) pair);
+    }
+
+    @Override
+    public void generate(RunReader input, RunSink sink) throws IOException {
+        int size = preloaded;
+        preloaded = 0;
+        if (size == buffer.length) {
+            sortAndWriteChunk(size, sink);
+            size = 0;
+        }
+        while (input.hasNext()) {
+            int key = input.next();
+            int value = input.next();
+            buffer[size++] = pack(key, value);
+            if (size == buffer.length) {
+                System.out.println("Sorting chunk...");
+                sortAndWriteChunk(size, sink);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            sortAndWriteChunk(size, sink);
+        }
+    }
+
+    private void sortAndWriteChunk(int size, RunSink sink) throws IOException {
+        Arrays.parallelSort(buffer, 0, size);
+
+        RunWriter writer = sink.beginRun();
+        for (int i = 0; i < size; i++) {
+            write(buffer[i], writer);
+        }
+        sink.endRun(size);
+    }
+}
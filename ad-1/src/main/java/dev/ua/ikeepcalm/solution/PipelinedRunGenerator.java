@@ -0,0 +1,161 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// one slice of the budget is filled while the next is sorted and the one after it is written, so every run is
+// a third of the memory and a sort produces about three times the runs (and merge work) of LOAD_SORT;
+// it pays off when parsing and disk writes, not merging, dominate
+class PipelinedRunGenerator implements RunGenerator {
+    static final int BUFFERS = 3;
+
+    private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(BUFFERS);
+    private final BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final BlockingQueue<Chunk> sorted = new ArrayBlockingQueue<>(BUFFERS + 1);
+
+    private int preloaded;
+
+    // the chunks are consecutive slices of memory, the last one takes the remainder
+    PipelinedRunGenerator(int[] memory, int preloaded) {
+        if (memory.length < BUFFERS) {
+            memory = Arrays.copyOf(memory, BUFFERS);
+        }
+        int chunkSize = memory.length / BUFFERS;
+        for (int i = 0; i < BUFFERS; i++) {
+            int end = i == BUFFERS - 1 ? memory.length : (i + 1) * chunkSize;
+            free.add(new Chunk(memory, i * chunkSize, end - i * chunkSize));
+        }
+        this.preloaded = preloaded;
+    }
+
+    @Override
+    public void generate(RunReader input, RunSink sink) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> sorter = executor.submit(() -> {
+                sortChunks();
+                return null;
+            });
+            Future<?> writer = executor.submit(() -> {
+                writeChunks(sink);
+                return null;
+            });
+
+            // free hands out the slices in order, so preloaded records already sit in the right chunks
+            Chunk chunk = takeFree(sorter, writer);
+            while (preloaded > 0) {
+                chunk.size = Math.min(preloaded, chunk.capacity);
+                preloaded -= chunk.size;
+                if (chunk.size == chunk.capacity) {
+                    filled.add(chunk);
+                    chunk = takeFree(sorter, writer);
+                }
+            }
+            while (input.hasNext()) {
+                chunk.data[chunk.offset + chunk.size++] = input.next();
+                if (chunk.size == chunk.capacity) {
+                    filled.add(chunk);
+                    chunk = takeFree(sorter, writer);
+                }
+            }
+            if (chunk.size > 0) {
+                filled.add(chunk);
+            }
+            filled.add(Chunk.END);
+
+            await(sorter);
+            await(writer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void sortChunks() throws InterruptedException {
+        while (true) {
+            Chunk chunk = filled.take();
+            if (chunk != Chunk.END) {
+                Arrays.parallelSort(chunk.data, chunk.offset, chunk.offset + chunk.size);
+            }
+            sorted.add(chunk);
+            if (chunk == Chunk.END) {
+                return;
+            }
+        }
+    }
+
+    private void writeChunks(RunSink sink) throws IOException, InterruptedException {
+        while (true) {
+            Chunk chunk = sorted.take();
+            if (chunk == Chunk.END) {
+                return;
+            }
+            RunWriter writer = sink.beginRun();
+            for (int i = 0; i < chunk.size; i++) {
+                writer.write(chunk.data[chunk.offset + i]);
+            }
+            sink.endRun(chunk.size);
+            chunk.size = 0;
+            free.add(chunk);
+        }
+    }
+
+    private Chunk takeFree(Future<?> sorter, Future<?> writer) throws IOException {
+        try {
+            while (true) {
+                Chunk chunk = free.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    return chunk;
+                }
+                for (Future<?> stage : new Future<?>[]{sorter, writer}) {
+                    if (stage.isDone()) {
+                        await(stage);
+                        throw new IOException("Run generation stage stopped early");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Run generation was interrupted");
+        }
+    }
+
+    private void await(Future<?> stage) throws IOException {
+        try {
+            stage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Run generation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Run generation stage failed", e.getCause());
+        }
+    }
+
+    private static class Chunk {
+        static final Chunk END = new Chunk(new int[0], 0, 0);
+
+        final int[] data;
+        final int offset;
+        final int capacity;
+        int size;
+
+        Chunk(int[] data, int offset, int capacity) {
+            this.data = data;
+            this.offset = offset;
+            this.capacity = capacity;
+        }
+    }
+}
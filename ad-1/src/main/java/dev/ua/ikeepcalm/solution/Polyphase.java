@@ -1,210 +1,453 @@
 package dev.ua.ikeepcalm.solution;
 
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.KeyValueTextRunReader;
+import dev.ua.ikeepcalm.solution.io.KeyValueTextRunWriter;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class Polyphase {
+    public static final int MIN_TAPES = 3;
+    public static final int MAX_TAPES = 64;
+    private static final int RESERVED_FILE_DESCRIPTORS = 32;
+    private static final int INITIAL_BUFFER = 1 << 16;
+
     private final String inputFile;
-    private final String firstAuxiliaryFile;
-    private final String secondAuxiliaryFile;
-    private final String thirdAuxiliaryFile;
+    private final List<String> auxiliaryFiles;
     private final int availableMemory;
+    private final RunFormat runFormat;
+    private RunGeneration runGeneration = RunGeneration.LOAD_SORT;
+    private MergeMode mergeMode = MergeMode.SORT;
+    private long topK;
+    private boolean largest;
+    private int parallelism = 1;
+    private IoBackend ioBackend = IoBackend.STREAM;
+    private SortListener listener;
+    private boolean checkpointing;
+    private SortStats lastStats;
 
     public Polyphase(String inputFile, String firstAuxiliaryFile, String secondAuxiliaryFile, String thirdAuxiliaryFile, int availableMemory) {
+        this(inputFile, firstAuxiliaryFile, secondAuxiliaryFile, thirdAuxiliaryFile, availableMemory, RunFormat.TEXT);
+    }
+
+    public Polyphase(String inputFile, String firstAuxiliaryFile, String secondAuxiliaryFile, String thirdAuxiliaryFile, int availableMemory, RunFormat runFormat) {
+        this(inputFile, List.of(firstAuxiliaryFile, secondAuxiliaryFile, thirdAuxiliaryFile), availableMemory, runFormat);
+    }
+
+    public Polyphase(String inputFile, List<String> auxiliaryFiles, int availableMemory, RunFormat runFormat) {
+        if (auxiliaryFiles.size() < MIN_TAPES) {
+            throw new IllegalArgumentException("Polyphase merge needs at least " + MIN_TAPES + " auxiliary files");
+        }
         this.inputFile = inputFile;
-        this.firstAuxiliaryFile = firstAuxiliaryFile;
-        this.secondAuxiliaryFile = secondAuxiliaryFile;
-        this.thirdAuxiliaryFile = thirdAuxiliaryFile;
+        this.auxiliaryFiles = List.copyOf(auxiliaryFiles);
         this.availableMemory = availableMemory;
+        this.runFormat = runFormat;
     }
 
-    public void sort() throws IOException {
-        List<File> sortedChunks = splitAndSortChunks();
-        distributeChunks(sortedChunks);
-        performPolyphaseMerge();
-    }
-
-    private List<File> splitAndSortChunks() throws IOException {
-        List<File> sortedChunks = new ArrayList<>();
-        List<Integer> buffer = new ArrayList<>();
-        int bufferSize = availableMemory / Integer.BYTES;
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                buffer.add(Integer.parseInt(line));
-                if (buffer.size() == bufferSize) {
-                    System.out.println("Sorting chunk...");
-                    sortedChunks.add(sortAndWriteChunk(buffer));
-                    buffer.clear();
-                }
-            }
-            if (!buffer.isEmpty()) {
-                sortedChunks.add(sortAndWriteChunk(buffer));
-            }
-        }
+    public void setRunGeneration(RunGeneration runGeneration) {
+        this.runGeneration = runGeneration;
+    }
 
-        return sortedChunks;
+    public void setMergeMode(MergeMode mergeMode) {
+        this.mergeMode = mergeMode;
     }
 
-    private File sortAndWriteChunk(List<Integer> buffer) throws IOException {
-        Collections.sort(buffer);
+    public void setTopK(long topK, boolean largest) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Top-k size must not be negative");
+        }
+        this.topK = topK;
+        this.largest = largest;
+    }
 
-        File tempDir = new File("temp");
-        if (!tempDir.exists()) {
-            tempDir.mkdir();
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
         }
+        this.parallelism = parallelism;
+    }
+
+    public void setIoBackend(IoBackend ioBackend) {
+        this.ioBackend = ioBackend;
+    }
 
+    public void setSortListener(SortListener listener) {
+        this.listener = listener;
+    }
 
-        File chunkFile = File.createTempFile("chunk", ".txt", tempDir);
-        chunkFile.deleteOnExit();
+    public void setCheckpointing(boolean checkpointing) {
+        this.checkpointing = checkpointing;
+    }
 
-        System.out.println("Writing chunk to file: " + chunkFile.getAbsolutePath());
+    public SortStats getLastStats() {
+        return lastStats;
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chunkFile))) {
-            for (int num : buffer) {
-                writer.write(Integer.toString(num));
-                writer.newLine();
-            }
+    // <prefix><i><extension> for i in 1..count, a null directory keeps them in the working directory
+    public static List<String> auxiliaryFiles(File directory, String prefix, int count, RunFormat runFormat) {
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            files.add(new File(directory, prefix + i + runFormat.getExtension()).getPath());
+        }
+        return files;
+    }
+
+    public static int chooseTapeCount(int availableMemory) {
+        int byMemory = availableMemory / RunFormat.DEFAULT_BUFFER_SIZE;
+        int byDescriptors = MAX_TAPES;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean unix) {
+            long free = unix.getMaxFileDescriptorCount() - unix.getOpenFileDescriptorCount() - RESERVED_FILE_DESCRIPTORS;
+            byDescriptors = (int) Math.min(MAX_TAPES, Math.max(0, free));
+        }
+        return Math.max(MIN_TAPES, Math.min(MAX_TAPES, Math.min(byMemory, byDescriptors)));
+    }
+
+    public void sort() throws IOException {
+        File sortedFile = new File("sorted.txt");
+        RunStorage storage = new RunStorage(runFormat, ioBackend);
+        SortMetrics metrics = new SortMetrics(listener);
+        File input = new File(inputFile);
+        Properties identity = checkpointing ? checkpointIdentity(input) : null;
+        RunReader reader = mergeMode == MergeMode.SUM
+                ? new KeyValueTextRunReader(input, storage.getReadBufferSize())
+                : storage.openTextReader(input);
+        OutputOpener output = mergeMode.isAggregating()
+                ? () -> new KeyValueTextRunWriter(sortedFile, storage.getWriteBufferSize())
+                : () -> storage.openTextWriter(sortedFile);
+        try (reader) {
+            sort(reader, output, storage, metrics, identity);
         }
+        metrics.addBytesRead(input.length());
+        metrics.addBytesWritten(sortedFile.length());
+        lastStats = metrics.finish();
 
-        return chunkFile;
+        System.out.println("Sort completed successfully.");
+        System.out.println("Sorted file: " + sortedFile.getAbsolutePath());
     }
 
-    private void distributeChunks(List<File> sortedChunks) throws IOException {
-        List<File> firstFileChunks = new ArrayList<>();
-        List<File> secondFileChunks = new ArrayList<>();
-        List<File> thirdFileChunks = new ArrayList<>();
+    void sort(RunReader input, OutputOpener output) throws IOException {
+        SortMetrics metrics = new SortMetrics(listener);
+        sort(input, output, new RunStorage(runFormat, ioBackend), metrics, null);
+        lastStats = metrics.finish();
+    }
 
-        int file1Chunks = Math.max(1, sortedChunks.size() / 3);
-        int file2Chunks = Math.max(1, sortedChunks.size() / 3);
-        int file3Chunks = sortedChunks.size() - file1Chunks - file2Chunks;
+    private Properties checkpointIdentity(File input) {
+        Properties identity = new Properties();
+        identity.setProperty("input", input.getAbsolutePath());
+        identity.setProperty("input.length", String.valueOf(input.length()));
+        identity.setProperty("input.modified", String.valueOf(input.lastModified()));
+        identity.setProperty("memory", String.valueOf(availableMemory));
+        identity.setProperty("format", runFormat.name());
+        identity.setProperty("mode", mergeMode.name());
+        identity.setProperty("top", (largest ? "-" : "") + topK);
+        identity.setProperty("tapes", String.valueOf(auxiliaryFiles.size()));
+        identity.setProperty("parallelism", String.valueOf(parallelism));
+        return identity;
+    }
 
-        for (int i = 0; i < file1Chunks && !sortedChunks.isEmpty(); i++) {
-            firstFileChunks.add(sortedChunks.removeFirst());
-        }
-        for (int i = 0; i < file2Chunks && !sortedChunks.isEmpty(); i++) {
-            secondFileChunks.add(sortedChunks.removeFirst());
+    private void sort(RunReader input, OutputOpener output, RunStorage storage, SortMetrics metrics, Properties identity) throws IOException {
+        TopK selection = null;
+        if (topK > 0) {
+            if (mergeMode != MergeMode.SORT) {
+                throw new IllegalStateException("Top-k selection only works with the sort merge mode");
+            }
+            if (largest) {
+                RunReader source = input;
+                OutputOpener target = output;
+                input = TopK.complement(source);
+                output = () -> TopK.complement(target.open());
+            }
+            if (topK <= availableMemory / Integer.BYTES) {
+                System.out.println("Selecting top " + topK + " values with an in-memory heap...");
+                metrics.phaseStarted(SortPhase.RUN_GENERATION);
+                try (RunWriter writer = output.open()) {
+                    TopK.writeSmallest(input, (int) topK, writer);
+                }
+                metrics.runGenerated(topK);
+                metrics.phaseCompleted(SortPhase.RUN_GENERATION);
+                return;
+            }
+            selection = new TopK(topK);
+            input = selection.filter(input);
         }
-        for (int i = 0; i < file3Chunks && !sortedChunks.isEmpty(); i++) {
-            thirdFileChunks.add(sortedChunks.removeFirst());
+
+        TapeGroup[] groups = new TapeGroup[parallelism];
+        for (int g = 0; g < groups.length; g++) {
+            groups[g] = new TapeGroup(groupFiles(g), storage, metrics, mergeMode);
+            if (topK > 0) {
+                groups[g].setRunLimit(topK);
+            }
+            if (identity != null) {
+                groups[g].enableCheckpoint(new Checkpoint(new File(groupFiles(g).get(0) + ".manifest"), identity));
+            }
         }
 
-        writeChunksToAuxFile(firstFileChunks, firstAuxiliaryFile);
-        writeChunksToAuxFile(secondFileChunks, secondAuxiliaryFile);
-        writeChunksToAuxFile(thirdFileChunks, thirdAuxiliaryFile);
-    }
+        boolean completed = false;
+        try {
+            metrics.phaseStarted(SortPhase.RUN_GENERATION);
+            if (identity == null || !restore(groups)) {
+                if (distribute(input, output, groups, metrics, selection)) {
+                    completed = true;
+                    return;
+                }
+            }
+            metrics.phaseCompleted(SortPhase.RUN_GENERATION);
 
-    private void writeChunksToAuxFile(List<File> chunks, String auxFile) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(auxFile))) {
-            for (File chunk : chunks) {
-                try (BufferedReader reader = new BufferedReader(new FileReader(chunk))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        writer.write(line);
-                        writer.newLine();
-                    }
+            metrics.phaseStarted(SortPhase.MERGE);
+            storage.sizeBuffers(availableMemory / parallelism, auxiliaryFiles.size() - 1);
+            System.out.println("Merge buffers: " + storage.getReadBufferSize() / 1024 + " KB per input run, " + storage.getWriteBufferSize() / 1024 + " KB for output");
+            if (groups.length == 1) {
+                try (RunWriter writer = output.open()) {
+                    groups[0].merge(writer);
+                }
+            } else {
+                performParallelMerge(groups, storage, output, metrics);
+            }
+            metrics.phaseCompleted(SortPhase.MERGE);
+            completed = true;
+        } finally {
+            for (TapeGroup group : groups) {
+                if (completed || identity == null) {
+                    group.delete();
+                } else {
+                    group.close();
                 }
             }
+            if (!completed && identity != null) {
+                System.out.println("Sort interrupted, temporary files kept for --checkpoint resume.");
+            }
         }
     }
 
-    private void performPolyphaseMerge() throws IOException {
-        File file1 = new File(firstAuxiliaryFile);
-        File file2 = new File(secondAuxiliaryFile);
-        File file3 = new File(thirdAuxiliaryFile);
-
-        boolean moreMergesNeeded = true;
-        while (moreMergesNeeded) {
-            System.out.println("Merging files...");
-            moreMergesNeeded = mergeFiles(file1, file2, file3);
-            if (moreMergesNeeded) {
-                File temp = file1;
-                file1 = file3;
-                file3 = file2;
-                file2 = temp;
+    private boolean restore(TapeGroup[] groups) throws IOException {
+        for (TapeGroup group : groups) {
+            if (!group.restore()) {
+                return false;
             }
         }
+        return true;
+    }
 
-        file1.renameTo(new File("sorted.txt"));
+    private boolean distribute(RunReader input, OutputOpener output, TapeGroup[] groups, SortMetrics metrics, TopK selection) throws IOException {
+        if (mergeMode == MergeMode.SUM) {
+            return distributePairs(input, output, groups, metrics);
+        }
 
-        System.out.println("Sort completed successfully.");
-        System.out.println("Sorted file: " + new File("sorted.txt").getAbsolutePath());
-        file2.delete();
-        file3.delete();
-    }
-
-    private boolean mergeFiles(File inputFile1, File inputFile2, File outputFile) throws IOException {
-        PriorityQueue<Entry> queue = new PriorityQueue<>();
-        try (
-                BufferedReader reader1 = new BufferedReader(new FileReader(inputFile1));
-                BufferedReader reader2 = new BufferedReader(new FileReader(inputFile2));
-                BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))
-        ) {
-            String line1 = reader1.readLine();
-            String line2 = reader2.readLine();
-
-            if (line1 != null) {
-                queue.add(new Entry(Integer.parseInt(line1), 1));
-            }
-            if (line2 != null) {
-                queue.add(new Entry(Integer.parseInt(line2), 2));
-            }
-
-            while (!queue.isEmpty()) {
-                Entry smallest = queue.poll();
-                writer.write(Integer.toString(smallest.value));
-                writer.newLine();
-                if (smallest.fileIndex == 1) {
-                    line1 = reader1.readLine();
-                    if (line1 != null) {
-                        queue.add(new Entry(Integer.parseInt(line1), 1));
-                    }
-                } else {
-                    line2 = reader2.readLine();
-                    if (line2 != null) {
-                        queue.add(new Entry(Integer.parseInt(line2), 2));
-                    }
+        // grows with the input, so small inputs never allocate the whole budget
+        int capacity = Math.max(1, availableMemory / Integer.BYTES);
+        int[] buffer = new int[Math.min(capacity, INITIAL_BUFFER)];
+        int size = 0;
+        while (input.hasNext()) {
+            if (size == buffer.length) {
+                if (size == capacity) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(capacity, 2L * size));
+            }
+            buffer[size++] = input.next();
+        }
+
+        if (!input.hasNext()) {
+            System.out.println("Input fits into memory, sorting without temporary files...");
+            Arrays.parallelSort(buffer, 0, size);
+            try (RunWriter writer = output.open()) {
+                RunCombiner combiner = new RunCombiner(mergeMode).start(writer);
+                for (int i = 0; i < size; i++) {
+                    combiner.write(buffer[i]);
                 }
+                combiner.finish();
             }
+            metrics.runGenerated(size);
+            metrics.phaseCompleted(SortPhase.RUN_GENERATION);
+            return true;
         }
 
-        return !isSingleSeries(outputFile);
+        RunSink sink = startDistribution(groups);
+        if (selection != null) {
+            sink = selection.prune(sink);
+        }
+        // the full buffer becomes the configured generator's memory, records already in it are its first input
+        splitAndSortChunks(groups, sink, runGeneration.create(buffer, size), input);
+        return false;
     }
 
-    private boolean isSingleSeries(File file) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String previousLine = reader.readLine();
-            if (previousLine == null) {
-                return true;
+    // key/value input is probed and sorted as packed pairs, spilling only once the pair buffer is full
+    private boolean distributePairs(RunReader input, OutputOpener output, TapeGroup[] groups, SortMetrics metrics) throws IOException {
+        int capacity = Math.max(1, availableMemory / Long.BYTES);
+        long[] buffer = new long[Math.min(capacity, INITIAL_BUFFER)];
+        int size = 0;
+        while (input.hasNext()) {
+            if (size == buffer.length) {
+                if (size == capacity) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(capacity, 2L * size));
             }
-            String currentLine;
-            while ((currentLine = reader.readLine()) != null) {
-                int previousValue = Integer.parseInt(previousLine);
-                int currentValue = Integer.parseInt(currentLine);
-                if (currentValue < previousValue) {
-                    return false;
+            int key = input.next();
+            buffer[size++] = PairRunGenerator.pack(key, input.next());
+        }
+
+        if (!input.hasNext()) {
+            System.out.println("Input fits into memory, summing without temporary files...");
+            Arrays.parallelSort(buffer, 0, size);
+            try (RunWriter writer = output.open()) {
+                RunCombiner combiner = new RunCombiner(mergeMode).start(writer);
+                for (int i = 0; i < size; i++) {
+                    PairRunGenerator.write(buffer[i], combiner);
                 }
-                previousLine = currentLine;
+                combiner.finish();
             }
+            metrics.runGenerated(size);
+            metrics.phaseCompleted(SortPhase.RUN_GENERATION);
+            return true;
+        }
+
+        splitAndSortChunks(groups, startDistribution(groups), new PairRunGenerator(buffer, size), input);
+        return false;
+    }
+
+    private List<String> groupFiles(int group) {
+        if (group == 0) {
+            return auxiliaryFiles;
+        }
+        List<String> files = new ArrayList<>();
+        for (String file : auxiliaryFiles) {
+            files.add(file + "." + group);
+        }
+        return files;
+    }
+
+    private RunSink startDistribution(TapeGroup[] groups) throws IOException {
+        for (TapeGroup group : groups) {
+            group.startDistribution();
+        }
+
+        return new RunSink() {
+            private int next;
+            private TapeGroup group;
+
+            @Override
+            public RunWriter beginRun() throws IOException {
+                group = groups[next];
+                next = (next + 1) % groups.length;
+                return group.beginRun();
+            }
+
+            @Override
+            public void endRun(long length) throws IOException {
+                group.endRun(length);
+            }
+        };
+    }
+
+    private void splitAndSortChunks(TapeGroup[] groups, RunSink sink, RunGenerator generator, RunReader input) throws IOException {
+        generator.generate(input, sink);
+
+        for (TapeGroup group : groups) {
+            group.finishDistribution();
         }
-        return true;
     }
 
-    private static class Entry implements Comparable<Entry> {
-        int value;
-        int fileIndex;
+    private void performParallelMerge(TapeGroup[] groups, RunStorage storage, OutputOpener output, SortMetrics metrics) throws IOException {
+        File[] parts = new File[groups.length];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int g = 0; g < groups.length; g++) {
+            TapeGroup group = groups[g];
+            File part = new File(auxiliaryFiles.get(0) + ".part" + g);
+            parts[g] = part;
+            if (group.isMerged() && part.exists()) {
+                System.out.println("Group " + g + " already merged into " + part.getName());
+                continue;
+            }
+            tasks.add(() -> {
+                try (RunWriter writer = storage.openWriter(part)) {
+                    group.merge(writer);
+                }
+                metrics.addBytesWritten(part.length());
+                group.markMerged();
+                return null;
+            });
+        }
 
-        public Entry(int value, int fileIndex) {
-            this.value = value;
-            this.fileIndex = fileIndex;
+        System.out.println("Merging " + groups.length + " run groups in parallel...");
+        ForkJoinPool pool = new ForkJoinPool(groups.length);
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Parallel merge was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Parallel merge failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
 
-        @Override
-        public int compareTo(Entry other) {
-            return Integer.compare(other.value, this.value);
+        System.out.println("Merging " + groups.length + " group results...");
+        long finalStart = System.nanoTime();
+        RunReader[] readers = new RunReader[groups.length];
+        LoserTree loserTree = new LoserTree(groups.length);
+        boolean merged = false;
+        try (RunWriter writer = output.open()) {
+            loserTree.reset(groups.length);
+            for (int g = 0; g < groups.length; g++) {
+                readers[g] = storage.openReader(parts[g]);
+                if (readers[g].hasNext()) {
+                    loserTree.set(g, readers[g].next());
+                }
+            }
+            loserTree.build();
+            RunCombiner combiner = new RunCombiner(mergeMode).start(writer);
+            long limit = topK > 0 ? topK : Long.MAX_VALUE;
+            for (long emitted = 0; emitted < limit && !loserTree.isEmpty(); emitted++) {
+                int source = loserTree.winner();
+                if (mergeMode.isAggregating()) {
+                    combiner.add(loserTree.winnerValue(), RunCombiner.readAggregate(readers[source]));
+                } else {
+                    combiner.write(loserTree.winnerValue());
+                }
+                if (readers[source].hasNext()) {
+                    loserTree.replaceWinner(readers[source].next());
+                } else {
+                    loserTree.exhaustWinner();
+                }
+            }
+            combiner.finish();
+            merged = true;
+        } finally {
+            for (int g = 0; g < groups.length; g++) {
+                if (readers[g] != null) {
+                    readers[g].close();
+                }
+                metrics.addBytesRead(parts[g].length());
+                if (merged || !checkpointing) {
+                    parts[g].delete();
+                }
+            }
         }
+        metrics.mergePassCompleted(groups.length, 0, System.nanoTime() - finalStart);
+    }
+
+    interface OutputOpener {
+        RunWriter open() throws IOException;
     }
 }
@@ -0,0 +1,107 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+
+class ReplacementSelectionRunGenerator implements RunGenerator {
+    private final int[] heap;
+    private int preloaded;
+
+    ReplacementSelectionRunGenerator(int[] heap, int preloaded) {
+        this.heap = heap;
+        this.preloaded = preloaded;
+    }
+
+    @Override
+    public void generate(RunReader input, RunSink sink) throws IOException {
+        int size = preloaded;
+        preloaded = 0;
+        while (size < heap.length && input.hasNext()) {
+            heap[size++] = input.next();
+        }
+        if (size == 0) {
+            return;
+        }
+
+        // heap[0..active) is the current run, heap[active..size) waits for the next one
+        int active = size;
+        heapify(active);
+        RunWriter writer = sink.beginRun();
+        long length = 0;
+
+        while (input.hasNext()) {
+            int smallest = heap[0];
+            writer.write(smallest);
+            length++;
+
+            int next = input.next();
+            if (next >= smallest) {
+                heap[0] = next;
+            } else {
+                active--;
+                heap[0] = heap[active];
+                heap[active] = next;
+            }
+            siftDown(0, active);
+
+            if (active == 0) {
+                sink.endRun(length);
+                System.out.println("Replacement selection run of " + length + " records");
+                active = size;
+                heapify(active);
+                writer = sink.beginRun();
+                length = 0;
+            }
+        }
+
+        int pendingStart = active;
+        while (active > 0) {
+            writer.write(heap[0]);
+            length++;
+            active--;
+            heap[0] = heap[active];
+            siftDown(0, active);
+        }
+        sink.endRun(length);
+
+        int pending = size - pendingStart;
+        if (pending > 0) {
+            System.arraycopy(heap, pendingStart, heap, 0, pending);
+            heapify(pending);
+            writer = sink.beginRun();
+            for (int left = pending; left > 0; left--) {
+                writer.write(heap[0]);
+                heap[0] = heap[left - 1];
+                siftDown(0, left - 1);
+            }
+            sink.endRun(pending);
+        }
+    }
+
+    private void heapify(int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size);
+        }
+    }
+
+    private void siftDown(int index, int size) {
+        int value = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
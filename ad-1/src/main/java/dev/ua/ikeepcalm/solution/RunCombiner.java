@@ -0,0 +1,97 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+
+class RunCombiner implements RunWriter {
+    // aggregated records are stored as key, high and low half of the aggregate
+    static final int AGGREGATE_WIDTH = 3;
+
+    private final MergeMode mode;
+    private RunWriter target;
+    private long written;
+    private boolean pending;
+    private int key;
+    private long aggregate;
+    private boolean hasInputKey;
+    private int inputKey;
+
+    RunCombiner(MergeMode mode) {
+        this.mode = mode;
+    }
+
+    RunCombiner start(RunWriter target) {
+        this.target = target;
+        written = 0;
+        pending = false;
+        hasInputKey = false;
+        return this;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        switch (mode) {
+            case SORT -> {
+                target.write(value);
+                written++;
+            }
+            case DISTINCT -> {
+                if (!pending || value != key) {
+                    target.write(value);
+                    written++;
+                    key = value;
+                    pending = true;
+                }
+            }
+            case COUNT -> add(value, 1);
+            case SUM -> {
+                if (hasInputKey) {
+                    hasInputKey = false;
+                    add(inputKey, value);
+                } else {
+                    inputKey = value;
+                    hasInputKey = true;
+                }
+            }
+        }
+    }
+
+    void add(int key, long amount) throws IOException {
+        if (pending && key == this.key) {
+            aggregate += amount;
+            return;
+        }
+        emit();
+        this.key = key;
+        aggregate = amount;
+        pending = true;
+    }
+
+    private void emit() throws IOException {
+        if (pending) {
+            target.write(key);
+            target.write((int) (aggregate >>> 32));
+            target.write((int) aggregate);
+            written += AGGREGATE_WIDTH;
+        }
+    }
+
+    long finish() throws IOException {
+        if (mode.isAggregating()) {
+            emit();
+        }
+        pending = false;
+        return written;
+    }
+
+    static long readAggregate(RunReader reader) throws IOException {
+        return ((long) reader.next() << 32) | (reader.next() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void close() {
+        // the target belongs to the tape
+    }
+}
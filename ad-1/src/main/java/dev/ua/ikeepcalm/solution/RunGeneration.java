@@ -0,0 +1,24 @@
+package dev.ua.ikeepcalm.solution;
+
+public enum RunGeneration {
+    LOAD_SORT,
+    REPLACEMENT_SELECTION,
+    PIPELINED;
+
+    RunGenerator create(int availableMemory) {
+        return create(new int[Math.max(1, availableMemory / Integer.BYTES)], 0);
+    }
+
+    // the generator works inside memory, whose first preloaded slots already hold the earliest input records
+    RunGenerator create(int[] memory, int preloaded) {
+        return switch (this) {
+            case LOAD_SORT -> new LoadSortRunGenerator(memory, preloaded);
+            case REPLACEMENT_SELECTION -> new ReplacementSelectionRunGenerator(memory, preloaded);
+            case PIPELINED -> new PipelinedRunGenerator(memory, preloaded);
+        };
+    }
+
+    public static RunGeneration parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
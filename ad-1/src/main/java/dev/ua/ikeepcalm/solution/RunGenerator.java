@@ -0,0 +1,10 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+
+import java.io.IOException;
+
+interface RunGenerator {
+
+    void generate(RunReader input, RunSink sink) throws IOException;
+}
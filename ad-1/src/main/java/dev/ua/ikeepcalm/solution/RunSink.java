@@ -0,0 +1,12 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+
+interface RunSink {
+
+    RunWriter beginRun() throws IOException;
+
+    void endRun(long length) throws IOException;
+}
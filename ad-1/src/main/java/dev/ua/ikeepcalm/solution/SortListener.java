@@ -0,0 +1,19 @@
+package dev.ua.ikeepcalm.solution;
+
+public interface SortListener {
+
+    default void phaseStarted(SortPhase phase) {
+    }
+
+    default void runGenerated(long records) {
+    }
+
+    default void mergePassCompleted(int pass, int runs, long bytesWritten, long elapsedNanos) {
+    }
+
+    default void phaseCompleted(SortPhase phase, long elapsedNanos) {
+    }
+
+    default void sortCompleted(SortStats stats) {
+    }
+}
@@ -0,0 +1,89 @@
+package dev.ua.ikeepcalm.solution;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+// one lock guards the counters and also keeps listener callbacks from parallel merge groups from interleaving
+class SortMetrics {
+    private static final SortListener NO_LISTENER = new SortListener() {
+    };
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final SortListener listener;
+    private final long startNanos = System.nanoTime();
+    private final Map<SortPhase, Long> phaseStarts = new EnumMap<>(SortPhase.class);
+    private final Map<SortPhase, Long> phaseNanos = new EnumMap<>(SortPhase.class);
+    private long records;
+    private long runs;
+    private long bytesRead;
+    private long bytesWritten;
+    private int mergePasses;
+    private long sampledPeakHeap;
+
+    SortMetrics(SortListener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+        sampleHeap();
+    }
+
+    synchronized void phaseStarted(SortPhase phase) {
+        sampleHeap();
+        phaseStarts.put(phase, System.nanoTime());
+        listener.phaseStarted(phase);
+    }
+
+    synchronized void phaseCompleted(SortPhase phase) {
+        sampleHeap();
+        Long started = phaseStarts.remove(phase);
+        if (started == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        phaseNanos.merge(phase, elapsed, Long::sum);
+        listener.phaseCompleted(phase, elapsed);
+    }
+
+    synchronized void runGenerated(long length) {
+        sampleHeap();
+        records += length;
+        runs++;
+        listener.runGenerated(length);
+    }
+
+    // the tapes count their own bytes as their writers close, the pass size only goes to the listener
+    synchronized void mergePassCompleted(int runCount, long bytes, long elapsedNanos) {
+        sampleHeap();
+        listener.mergePassCompleted(++mergePasses, runCount, bytes, elapsedNanos);
+    }
+
+    synchronized void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    synchronized void addBytesWritten(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    synchronized SortStats finish() {
+        sampleHeap();
+        SortStats stats = new SortStats(
+                phaseNanos.getOrDefault(SortPhase.RUN_GENERATION, 0L),
+                phaseNanos.getOrDefault(SortPhase.MERGE, 0L),
+                System.nanoTime() - startNanos,
+                records,
+                bytesRead,
+                bytesWritten,
+                runs,
+                mergePasses,
+                sampledPeakHeap);
+        listener.sortCompleted(stats);
+        return stats;
+    }
+
+    // heap in use is sampled at sort events only, so a spike between two events is missed and the figure is a lower bound;
+    // the JVM-wide peak counters belong to the whole process and stay untouched
+    private synchronized void sampleHeap() {
+        sampledPeakHeap = Math.max(sampledPeakHeap, MEMORY.getHeapMemoryUsage().getUsed());
+    }
+}
@@ -0,0 +1,6 @@
+package dev.ua.ikeepcalm.solution;
+
+public enum SortPhase {
+    RUN_GENERATION,
+    MERGE
+}
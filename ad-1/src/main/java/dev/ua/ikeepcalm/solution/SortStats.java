@@ -0,0 +1,24 @@
+package dev.ua.ikeepcalm.solution;
+
+public record SortStats(long runGenerationNanos,
+                        long mergeNanos,
+                        long totalNanos,
+                        long records,
+                        long bytesRead,
+                        long bytesWritten,
+                        long runs,
+                        int mergePasses,
+                        long sampledPeakHeapBytes) {
+
+    public double recordsPerSecond() {
+        return totalNanos == 0 ? 0 : records * 1_000_000_000.0 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("records=%d runs=%d mergePasses=%d runGeneration=%dms merge=%dms total=%dms "
+                        + "read=%.1fMB written=%.1fMB throughput=%.0f records/s sampledPeakHeap=%.1fMB",
+                records, runs, mergePasses, runGenerationNanos / 1_000_000, mergeNanos / 1_000_000, totalNanos / 1_000_000,
+                bytesRead / 1e6, bytesWritten / 1e6, recordsPerSecond(), sampledPeakHeapBytes / 1e6);
+    }
+}
@@ -0,0 +1,70 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.TextRunReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class StreamingSort {
+    private final int availableMemory;
+    private RunFormat runFormat = RunFormat.INT32;
+    private RunGeneration runGeneration = RunGeneration.LOAD_SORT;
+    private File workingDirectory = new File(System.getProperty("java.io.tmpdir"));
+    private SortListener listener;
+
+    public StreamingSort(int availableMemory) {
+        this.availableMemory = availableMemory;
+    }
+
+    public void setRunFormat(RunFormat runFormat) {
+        this.runFormat = runFormat;
+    }
+
+    public void setRunGeneration(RunGeneration runGeneration) {
+        this.runGeneration = runGeneration;
+    }
+
+    public void setWorkingDirectory(File workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    public void setSortListener(SortListener listener) {
+        this.listener = listener;
+    }
+
+    public void sort(PrimitiveIterator.OfInt input, IntConsumer sink) throws IOException {
+        sort(new IteratorRunReader(input), sink);
+    }
+
+    public void sort(IntStream input, IntConsumer sink) throws IOException {
+        sort(input.iterator(), sink);
+    }
+
+    public void sort(InputStream input, IntConsumer sink) throws IOException {
+        try (RunReader reader = new TextRunReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            sort(reader, sink);
+        }
+    }
+
+    private void sort(RunReader input, IntConsumer sink) throws IOException {
+        String prefix = "polyphase-" + UUID.randomUUID() + "-";
+        List<String> tapes = Polyphase.auxiliaryFiles(workingDirectory, prefix, Polyphase.chooseTapeCount(availableMemory), runFormat);
+
+        Polyphase sorter = new Polyphase(null, tapes, availableMemory, runFormat);
+        sorter.setRunGeneration(runGeneration);
+        sorter.setSortListener(listener);
+        sorter.sort(input, () -> new ConsumerRunWriter(sink));
+    }
+}
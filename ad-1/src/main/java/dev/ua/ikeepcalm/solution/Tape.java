@@ -0,0 +1,58 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+class Tape {
+    final File file;
+    final Deque<Long> runs = new ArrayDeque<>();
+    int dummyRuns;
+    long consumed;
+    long bytesRead;
+    long bytesWritten;
+    RunReader reader;
+    RunWriter writer;
+
+    Tape(File file) {
+        this.file = file;
+    }
+
+    int runCount() {
+        return runs.size() + dummyRuns;
+    }
+
+    void startWriting(RunStorage storage) throws IOException {
+        close();
+        runs.clear();
+        dummyRuns = 0;
+        consumed = 0;
+        writer = storage.openWriter(file);
+    }
+
+    void startReading(RunStorage storage) throws IOException {
+        close();
+        reader = storage.openReader(file);
+        if (consumed > 0) {
+            reader.skip(consumed);
+        }
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            bytesWritten += file.length();
+        }
+        if (reader != null) {
+            reader.close();
+            reader = null;
+            bytesRead += file.length();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+class TapeGroup implements RunSink {
+    private final Tape[] tapes;
+    private final RunStorage storage;
+    private final SortMetrics metrics;
+    private final FibonacciDistribution distribution;
+    private final LoserTree loserTree;
+    private final RunReader[] mergeReaders;
+    private final long[] mergeRemaining;
+    private final MergeMode mode;
+    private final RunCombiner combiner;
+    private Tape current;
+    private Checkpoint checkpoint;
+    private int output;
+    private int phase;
+    private boolean merged;
+    private long runLimit = Long.MAX_VALUE;
+
+    TapeGroup(List<String> files, RunStorage storage, SortMetrics metrics, MergeMode mode) {
+        this.tapes = new Tape[files.size()];
+        for (int i = 0; i < tapes.length; i++) {
+            tapes[i] = new Tape(new File(files.get(i)));
+        }
+        this.storage = storage;
+        this.metrics = metrics;
+        this.distribution = new FibonacciDistribution(tapes);
+        this.loserTree = new LoserTree(tapes.length - 1);
+        this.mergeReaders = new RunReader[tapes.length - 1];
+        this.mergeRemaining = new long[tapes.length - 1];
+        this.output = tapes.length - 1;
+        this.mode = mode;
+        this.combiner = new RunCombiner(mode);
+    }
+
+    void setRunLimit(long runLimit) {
+        this.runLimit = runLimit;
+    }
+
+    void enableCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    boolean restore() throws IOException {
+        Properties state = checkpoint.load();
+        if (state == null) {
+            return false;
+        }
+        output = Integer.parseInt(state.getProperty("output"));
+        phase = Integer.parseInt(state.getProperty("phase"));
+        merged = Checkpoint.MERGED.equals(state.getProperty("stage"));
+        for (int i = 0; i < tapes.length; i++) {
+            tapes[i].runs.clear();
+            String runs = state.getProperty("tape." + i + ".runs", "");
+            for (String run : runs.split(",")) {
+                if (!run.isEmpty()) {
+                    tapes[i].runs.addLast(Long.parseLong(run));
+                }
+            }
+            tapes[i].dummyRuns = Integer.parseInt(state.getProperty("tape." + i + ".dummy"));
+            tapes[i].consumed = Long.parseLong(state.getProperty("tape." + i + ".consumed"));
+        }
+        System.out.println("Resuming " + tapes[0].file.getName() + " group from " + state.getProperty("stage") + " after phase " + phase);
+        return true;
+    }
+
+    private void saveCheckpoint(String stage) throws IOException {
+        if (checkpoint == null) {
+            return;
+        }
+        Properties state = new Properties();
+        state.setProperty("stage", stage);
+        state.setProperty("phase", String.valueOf(phase));
+        state.setProperty("output", String.valueOf(output));
+        for (int i = 0; i < tapes.length; i++) {
+            StringBuilder runs = new StringBuilder();
+            for (long run : tapes[i].runs) {
+                if (!runs.isEmpty()) {
+                    runs.append(',');
+                }
+                runs.append(run);
+            }
+            state.setProperty("tape." + i + ".runs", runs.toString());
+            state.setProperty("tape." + i + ".dummy", String.valueOf(tapes[i].dummyRuns));
+            state.setProperty("tape." + i + ".consumed", String.valueOf(tapes[i].consumed));
+        }
+        checkpoint.save(state);
+    }
+
+    boolean isMerged() {
+        return merged;
+    }
+
+    void startDistribution() throws IOException {
+        for (int i = 0; i < tapes.length - 1; i++) {
+            tapes[i].startWriting(storage);
+        }
+    }
+
+    @Override
+    public RunWriter beginRun() {
+        current = distribution.nextTape();
+        return mode == MergeMode.SORT ? current.writer : combiner.start(current.writer);
+    }
+
+    @Override
+    public void endRun(long length) throws IOException {
+        current.runs.addLast(mode == MergeMode.SORT ? length : combiner.finish());
+        metrics.runGenerated(length);
+    }
+
+    void finishDistribution() throws IOException {
+        distribution.finish();
+        System.out.println("Distributed runs over " + (tapes.length - 1) + " tapes, " + distribution.getLevel() + " Fibonacci levels");
+        for (Tape tape : tapes) {
+            tape.close();
+        }
+        saveCheckpoint(Checkpoint.DISTRIBUTED);
+    }
+
+    void merge(RunWriter finalWriter) throws IOException {
+        for (int i = 0; i < tapes.length; i++) {
+            if (i != output) {
+                tapes[i].startReading(storage);
+            }
+        }
+
+        int totalRuns = 0;
+        for (Tape tape : tapes) {
+            totalRuns += tape.runCount();
+        }
+        if (totalRuns == 0) {
+            return;
+        }
+
+        while (true) {
+            List<Tape> inputs = new ArrayList<>();
+            int merges = Integer.MAX_VALUE;
+            boolean finalPhase = true;
+            for (int i = 0; i < tapes.length; i++) {
+                if (i != output) {
+                    inputs.add(tapes[i]);
+                    merges = Math.min(merges, tapes[i].runCount());
+                    finalPhase &= tapes[i].runCount() == 1;
+                }
+            }
+
+            phase++;
+            System.out.println("Merge phase " + phase + ": " + merges + " runs to " + tapes[output].file.getName());
+            long phaseStart = System.nanoTime();
+
+            if (finalPhase) {
+                mergeRun(inputs, tapes[output], finalWriter);
+                metrics.mergePassCompleted(merges, 0, System.nanoTime() - phaseStart);
+                return;
+            }
+
+            tapes[output].startWriting(storage);
+            for (int i = 0; i < merges; i++) {
+                mergeRun(inputs, tapes[output], tapes[output].writer);
+            }
+            tapes[output].startReading(storage);
+            metrics.mergePassCompleted(merges, tapes[output].file.length(), System.nanoTime() - phaseStart);
+
+            for (int i = 0; i < tapes.length; i++) {
+                if (i != output && tapes[i].runCount() == 0) {
+                    output = i;
+                    break;
+                }
+            }
+            saveCheckpoint(Checkpoint.MERGING);
+        }
+    }
+
+    void markMerged() throws IOException {
+        merged = true;
+        saveCheckpoint(Checkpoint.MERGED);
+    }
+
+    private void mergeRun(List<Tape> inputs, Tape output, RunWriter writer) throws IOException {
+        long total = 0;
+        boolean dummy = true;
+
+        loserTree.reset(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            Tape tape = inputs.get(i);
+            mergeRemaining[i] = 0;
+            if (tape.dummyRuns > 0) {
+                tape.dummyRuns--;
+                continue;
+            }
+            dummy = false;
+            long length = tape.runs.removeFirst();
+            tape.consumed += length;
+            if (length > 0) {
+                mergeReaders[i] = tape.reader;
+                mergeRemaining[i] = length - 1;
+                loserTree.set(i, tape.reader.next());
+                total += length;
+            }
+        }
+
+        if (dummy) {
+            output.dummyRuns++;
+            return;
+        }
+
+        loserTree.build();
+        if (mode != MergeMode.SORT) {
+            output.runs.addLast(combineRun(writer));
+            return;
+        }
+        long limit = Math.min(total, runLimit);
+        long emitted = 0;
+        while (emitted < limit) {
+            int source = loserTree.winner();
+            writer.write(loserTree.winnerValue());
+            emitted++;
+            if (mergeRemaining[source] > 0) {
+                mergeRemaining[source]--;
+                loserTree.replaceWinner(mergeReaders[source].next());
+            } else {
+                loserTree.exhaustWinner();
+            }
+        }
+        if (emitted < total) {
+            // nothing past the limit can reach the output, step over the rest of every input run
+            for (int i = 0; i < inputs.size(); i++) {
+                if (mergeRemaining[i] > 0) {
+                    mergeReaders[i].skip(mergeRemaining[i]);
+                }
+            }
+        }
+
+        output.runs.addLast(emitted);
+    }
+
+    private long combineRun(RunWriter writer) throws IOException {
+        combiner.start(writer);
+        while (!loserTree.isEmpty()) {
+            int source = loserTree.winner();
+            if (mode.isAggregating()) {
+                combiner.add(loserTree.winnerValue(), RunCombiner.readAggregate(mergeReaders[source]));
+                mergeRemaining[source] -= RunCombiner.AGGREGATE_WIDTH - 1;
+            } else {
+                combiner.write(loserTree.winnerValue());
+            }
+            if (mergeRemaining[source] > 0) {
+                mergeRemaining[source]--;
+                loserTree.replaceWinner(mergeReaders[source].next());
+            } else {
+                loserTree.exhaustWinner();
+            }
+        }
+        return combiner.finish();
+    }
+
+    void close() throws IOException {
+        for (Tape tape : tapes) {
+            tape.close();
+        }
+    }
+
+    void delete() throws IOException {
+        for (Tape tape : tapes) {
+            tape.close();
+            tape.file.delete();
+            metrics.addBytesRead(tape.bytesRead);
+            metrics.addBytesWritten(tape.bytesWritten);
+        }
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+}
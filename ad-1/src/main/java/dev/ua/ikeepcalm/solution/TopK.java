@@ -0,0 +1,176 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+class TopK {
+    private final long k;
+    // the k-th value of the shortest complete run, nothing above it can reach the output
+    private volatile long bound = Long.MAX_VALUE;
+
+    TopK(long k) {
+        this.k = k;
+    }
+
+    static void writeSmallest(RunReader input, int k, RunWriter writer) throws IOException {
+        int[] heap = new int[k];
+        int size = 0;
+        while (input.hasNext()) {
+            int value = input.next();
+            if (size < k) {
+                heap[size] = value;
+                siftUp(heap, size++);
+            } else if (value < heap[0]) {
+                heap[0] = value;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        for (int i = 0; i < size; i++) {
+            writer.write(heap[i]);
+        }
+    }
+
+    private static void siftUp(int[] heap, int index) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(int[] heap, int size) {
+        int value = heap[0];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (value >= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    RunSink prune(RunSink sink) {
+        return new RunSink() {
+            private final PruningWriter writer = new PruningWriter();
+
+            @Override
+            public RunWriter beginRun() throws IOException {
+                writer.target = sink.beginRun();
+                writer.written = 0;
+                return writer;
+            }
+
+            @Override
+            public void endRun(long length) throws IOException {
+                if (writer.written >= k) {
+                    bound = Math.min(bound, writer.last);
+                }
+                sink.endRun(Math.min(length, k));
+            }
+        };
+    }
+
+    private class PruningWriter implements RunWriter {
+        private RunWriter target;
+        private long written;
+        private int last;
+
+        @Override
+        public void write(int value) throws IOException {
+            if (written < k) {
+                target.write(value);
+                last = value;
+                written++;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the target belongs to the tape
+        }
+    }
+
+    RunReader filter(RunReader input) {
+        return new RunReader() {
+            private boolean ready;
+            private int value;
+
+            @Override
+            public boolean hasNext() throws IOException {
+                while (!ready && input.hasNext()) {
+                    int candidate = input.next();
+                    if (candidate <= bound) {
+                        value = candidate;
+                        ready = true;
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public int next() throws IOException {
+                if (!hasNext()) {
+                    throw new EOFException("No more values below the top-k bound");
+                }
+                ready = false;
+                return value;
+            }
+
+            @Override
+            public void close() throws IOException {
+                input.close();
+            }
+        };
+    }
+
+    // bitwise complement reverses the order of all ints without overflowing like negation does
+    static RunReader complement(RunReader input) {
+        return new RunReader() {
+            @Override
+            public boolean hasNext() throws IOException {
+                return input.hasNext();
+            }
+
+            @Override
+            public int next() throws IOException {
+                return ~input.next();
+            }
+
+            @Override
+            public void close() throws IOException {
+                input.close();
+            }
+        };
+    }
+
+    static RunWriter complement(RunWriter output) {
+        return new RunWriter() {
+            @Override
+            public void write(int value) throws IOException {
+                output.write(~value);
+            }
+
+            @Override
+            public void close() throws IOException {
+                output.close();
+            }
+        };
+    }
+}
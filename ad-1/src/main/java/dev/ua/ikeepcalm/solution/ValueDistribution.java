@@ -0,0 +1,98 @@
+package dev.ua.ikeepcalm.solution;
+
+import java.util.SplittableRandom;
+
+public enum ValueDistribution {
+    UNIFORM,
+    ZIPF,
+    LOG_UNIFORM,
+    SORTED,
+    REVERSE_SORTED,
+    NEARLY_SORTED,
+    DUPLICATES;
+
+    private static final double NEARLY_SORTED_NOISE = 0.01;
+    private static final int DISTINCT_DUPLICATES = 100;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    private static volatile ZipfSampler zipf;
+
+    int next(SplittableRandom random, double progress, int bound) {
+        return switch (this) {
+            case UNIFORM -> random.nextInt(bound);
+            case ZIPF -> zipf(bound).sample(random) - 1;
+            case LOG_UNIFORM -> Math.min(bound - 1, (int) Math.pow(bound, random.nextDouble()) - 1);
+            case SORTED -> sorted(progress, bound);
+            case REVERSE_SORTED -> bound - 1 - sorted(progress, bound);
+            case NEARLY_SORTED -> random.nextDouble() < NEARLY_SORTED_NOISE ? random.nextInt(bound) : sorted(progress, bound);
+            case DUPLICATES -> random.nextInt(DISTINCT_DUPLICATES) * Math.max(1, bound / DISTINCT_DUPLICATES);
+        };
+    }
+
+    private static int sorted(double progress, int bound) {
+        return Math.min(bound - 1, (int) (progress * bound));
+    }
+
+    private static ZipfSampler zipf(int bound) {
+        ZipfSampler sampler = zipf;
+        if (sampler == null || sampler.elements != bound) {
+            sampler = new ZipfSampler(bound, ZIPF_EXPONENT);
+            zipf = sampler;
+        }
+        return sampler;
+    }
+
+    public static ValueDistribution parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    // rejection-inversion sampling (Hörmann and Derflinger), rank k in [1, elements] has probability proportional to k^-exponent
+    private static final class ZipfSampler {
+        private final int elements;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralElements;
+        private final double squeeze;
+
+        ZipfSampler(int elements, double exponent) {
+            this.elements = elements;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1;
+            this.hIntegralElements = hIntegral(elements + 0.5);
+            this.squeeze = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        }
+
+        int sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralElements + random.nextDouble() * (hIntegralX1 - hIntegralElements);
+                double x = hIntegralInverse(u);
+                int k = (int) Math.max(1, Math.min(elements, x + 0.5));
+                if (k - x <= squeeze || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return expm1OverX((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = Math.max(-1, x * (1 - exponent));
+            return Math.exp(log1pOverX(t) * x);
+        }
+
+        private static double log1pOverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        private static double expm1OverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryRunReader implements RunReader {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int recordSize;
+
+    public BinaryRunReader(File file, int recordSize, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        this.recordSize = recordSize;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (buffer.remaining() >= recordSize) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < recordSize && channel.read(buffer) > 0) {
+            // keep filling until at least one whole record is buffered
+        }
+        buffer.flip();
+        return buffer.remaining() >= recordSize;
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("Unexpected end of run file");
+        }
+        if (recordSize == Integer.BYTES) {
+            return buffer.getInt();
+        }
+        return Math.toIntExact(buffer.getLong());
+    }
+
+    @Override
+    public void skip(long records) throws IOException {
+        long position = channel.position() - buffer.remaining() + records * recordSize;
+        if (position > channel.size()) {
+            throw new EOFException("Cannot skip past the end of run file");
+        }
+        channel.position(position);
+        buffer.clear();
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
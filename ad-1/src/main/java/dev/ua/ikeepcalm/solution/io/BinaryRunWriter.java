@@ -0,0 +1,49 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryRunWriter implements RunWriter {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int recordSize;
+
+    public BinaryRunWriter(File file, int recordSize, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        this.recordSize = recordSize;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+        if (recordSize == Integer.BYTES) {
+            buffer.putInt(value);
+        } else {
+            buffer.putLong(value);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.util.function.IntConsumer;
+
+public class ConsumerRunWriter implements RunWriter {
+    private final IntConsumer consumer;
+
+    public ConsumerRunWriter(IntConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void write(int value) {
+        consumer.accept(value);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,58 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class DeltaVarintRunReader implements RunReader {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private boolean endOfFile;
+    private int previous;
+
+    public DeltaVarintRunReader(File file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (buffer.remaining() < DeltaVarintRunWriter.MAX_VARINT_BYTES && !endOfFile) {
+            buffer.compact();
+            while (buffer.position() < DeltaVarintRunWriter.MAX_VARINT_BYTES && !endOfFile) {
+                endOfFile = channel.read(buffer) < 0;
+            }
+            buffer.flip();
+        }
+        return buffer.hasRemaining();
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("Unexpected end of run file");
+        }
+        int zigzag = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("Truncated varint in run file");
+            }
+            current = buffer.get();
+            zigzag |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        previous += (zigzag >>> 1) ^ -(zigzag & 1);
+        return previous;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,52 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class DeltaVarintRunWriter implements RunWriter {
+    static final int MAX_VARINT_BYTES = 5;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private int previous;
+
+    public DeltaVarintRunWriter(File file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (buffer.remaining() < MAX_VARINT_BYTES) {
+            flush();
+        }
+        int delta = value - previous;
+        previous = value;
+        int zigzag = (delta << 1) ^ (delta >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+
+final class DirectBlocks {
+    private static final OpenOption DIRECT = lookUpDirect();
+
+    private DirectBlocks() {
+    }
+
+    // com.sun.nio.file.ExtendedOpenOption is looked up by name, a compile-time reference draws javac's
+    // internal proprietary API warning, which @SuppressWarnings cannot silence
+    private static OpenOption lookUpDirect() {
+        try {
+            for (Object option : Class.forName("com.sun.nio.file.ExtendedOpenOption").getEnumConstants()) {
+                if (((Enum<?>) option).name().equals("DIRECT")) {
+                    return (OpenOption) option;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // not a JDK build that ships the option
+        }
+        return null;
+    }
+
+    static OpenOption direct() {
+        if (DIRECT == null) {
+            throw new UnsupportedOperationException("ExtendedOpenOption.DIRECT is not available in this JDK");
+        }
+        return DIRECT;
+    }
+
+    static int blockSize(File file) throws IOException {
+        return (int) Files.getFileStore(file.getAbsoluteFile().getParentFile().toPath()).getBlockSize();
+    }
+
+    static ByteBuffer allocate(int size, int blockSize) {
+        int aligned = Math.max(blockSize, size / blockSize * blockSize);
+        return ByteBuffer.allocateDirect(aligned + blockSize)
+                .alignedSlice(blockSize)
+                .slice(0, aligned)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
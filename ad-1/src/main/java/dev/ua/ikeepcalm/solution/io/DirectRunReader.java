@@ -0,0 +1,72 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class DirectRunReader implements RunReader {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int recordSize;
+    private final int blockSize;
+    private boolean endOfFile;
+
+    public DirectRunReader(File file, int recordSize, int bufferSize) throws IOException {
+        this.blockSize = DirectBlocks.blockSize(file);
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, DirectBlocks.direct());
+        this.buffer = DirectBlocks.allocate(bufferSize, blockSize);
+        this.recordSize = recordSize;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (buffer.remaining() >= recordSize) {
+            return true;
+        }
+        if (endOfFile) {
+            return false;
+        }
+        fill();
+        return buffer.remaining() >= recordSize;
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("Unexpected end of run file");
+        }
+        if (recordSize == Integer.BYTES) {
+            return buffer.getInt();
+        }
+        return Math.toIntExact(buffer.getLong());
+    }
+
+    @Override
+    public void skip(long records) throws IOException {
+        long position = channel.position() - buffer.remaining() + records * recordSize;
+        if (position > channel.size()) {
+            throw new EOFException("Cannot skip past the end of run file");
+        }
+        long block = position - position % blockSize;
+        channel.position(block);
+        endOfFile = false;
+        fill();
+        buffer.position((int) Math.min(buffer.limit(), position - block));
+    }
+
+    private void fill() throws IOException {
+        // a short read only happens at the end of the file, after it the position is no longer aligned
+        buffer.clear();
+        endOfFile = channel.read(buffer) < buffer.capacity();
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
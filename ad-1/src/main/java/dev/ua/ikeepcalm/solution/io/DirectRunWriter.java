@@ -0,0 +1,60 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class DirectRunWriter implements RunWriter {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int recordSize;
+    private final int blockSize;
+    private long size;
+
+    public DirectRunWriter(File file, int recordSize, int bufferSize) throws IOException {
+        this.blockSize = DirectBlocks.blockSize(file);
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, DirectBlocks.direct());
+        this.buffer = DirectBlocks.allocate(bufferSize, blockSize);
+        this.recordSize = recordSize;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+        if (recordSize == Integer.BYTES) {
+            buffer.putInt(value);
+        } else {
+            buffer.putLong(value);
+        }
+    }
+
+    private void flush() throws IOException {
+        size += buffer.position();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long length = size + buffer.position();
+            if (buffer.position() > 0) {
+                // pad the last block for the aligned write, then cut the file back to its real length
+                while (buffer.position() % blockSize != 0) {
+                    buffer.put((byte) 0);
+                }
+                flush();
+                channel.truncate(length);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.ua.ikeepcalm.solution.io;
+
+public enum IoBackend {
+    STREAM,
+    MAPPED,
+    DIRECT;
+
+    public static IoBackend parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,25 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.util.PrimitiveIterator;
+
+public class IteratorRunReader implements RunReader {
+    private final PrimitiveIterator.OfInt iterator;
+
+    public IteratorRunReader(PrimitiveIterator.OfInt iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public int next() {
+        return iterator.nextInt();
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,55 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+public class KeyValueTextRunReader implements RunReader {
+    private final BufferedReader reader;
+    private String line;
+    private int value;
+    private boolean valuePending;
+
+    public KeyValueTextRunReader(File file, int bufferSize) throws IOException {
+        this.reader = new BufferedReader(new FileReader(file), bufferSize);
+        this.line = reader.readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return valuePending || line != null;
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (valuePending) {
+            valuePending = false;
+            return value;
+        }
+        int separator = separatorIndex(line);
+        if (separator < 0) {
+            throw new IOException("Expected \"key value\" but got: " + line);
+        }
+        int key = Integer.parseInt(line.substring(0, separator).trim());
+        value = Integer.parseInt(line.substring(separator + 1).trim());
+        valuePending = true;
+        line = reader.readLine();
+        return key;
+    }
+
+    private static int separatorIndex(String line) {
+        for (int i = 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == ',' || c == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
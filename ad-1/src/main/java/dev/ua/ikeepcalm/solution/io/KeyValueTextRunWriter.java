@@ -0,0 +1,35 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class KeyValueTextRunWriter implements RunWriter {
+    private final BufferedWriter writer;
+    // key followed by the high and low half of its aggregate
+    private final int[] record = new int[3];
+    private int filled;
+
+    public KeyValueTextRunWriter(File file, int bufferSize) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(file), bufferSize);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        record[filled++] = value;
+        if (filled == record.length) {
+            filled = 0;
+            long aggregate = ((long) record[1] << 32) | (record[2] & 0xFFFFFFFFL);
+            writer.write(Integer.toString(record[0]));
+            writer.write(' ');
+            writer.write(Long.toString(aggregate));
+            writer.newLine();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
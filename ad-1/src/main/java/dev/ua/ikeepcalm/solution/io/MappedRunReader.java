@@ -0,0 +1,68 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class MappedRunReader implements RunReader {
+    private final FileChannel channel;
+    private final long size;
+    private final int recordSize;
+    private MappedByteBuffer window;
+    private long windowEnd;
+
+    public MappedRunReader(File file, int recordSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.recordSize = recordSize;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (window != null && window.remaining() >= recordSize) {
+            return true;
+        }
+        if (size - windowEnd < recordSize) {
+            return false;
+        }
+        long length = Math.min(MappedWindow.WINDOW_SIZE, size - windowEnd);
+        // cleared first, a failed map must not leave the released window reachable
+        MappedWindow.unmap(window);
+        window = null;
+        window = MappedWindow.map(channel, FileChannel.MapMode.READ_ONLY, windowEnd, length);
+        windowEnd += length;
+        return true;
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("Unexpected end of run file");
+        }
+        if (recordSize == Integer.BYTES) {
+            return window.getInt();
+        }
+        return Math.toIntExact(window.getLong());
+    }
+
+    @Override
+    public void skip(long records) throws IOException {
+        long position = (window == null ? windowEnd : windowEnd - window.remaining()) + records * recordSize;
+        if (position > size) {
+            throw new EOFException("Cannot skip past the end of run file");
+        }
+        MappedWindow.unmap(window);
+        window = null;
+        windowEnd = position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        MappedWindow.unmap(window);
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class MappedRunWriter implements RunWriter {
+    private final FileChannel channel;
+    private final int recordSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    public MappedRunWriter(File file, int recordSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.recordSize = recordSize;
+        this.window = MappedWindow.map(channel, FileChannel.MapMode.READ_WRITE, 0, MappedWindow.WINDOW_SIZE);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (window.remaining() < recordSize) {
+            windowStart += window.position();
+            MappedWindow.unmap(window);
+            window = MappedWindow.map(channel, FileChannel.MapMode.READ_WRITE, windowStart, MappedWindow.WINDOW_SIZE);
+        }
+        if (recordSize == Integer.BYTES) {
+            window.putInt(value);
+        } else {
+            window.putLong(value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long written = windowStart + window.position();
+        MappedWindow.unmap(window);
+        window = null;
+        try {
+            channel.truncate(written);
+        } finally {
+            channel.close();
+        }
+    }
+}
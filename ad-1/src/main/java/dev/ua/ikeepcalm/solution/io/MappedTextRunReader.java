@@ -0,0 +1,86 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class MappedTextRunReader implements RunReader {
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowEnd;
+
+    public MappedTextRunReader(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    // like BufferedReader.readLine on the stream path, every line is a record and a blank one fails in next
+    @Override
+    public boolean hasNext() throws IOException {
+        return hasByte();
+    }
+
+    @Override
+    public int next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("Unexpected end of text file");
+        }
+        boolean signed = false;
+        boolean negative = false;
+        long value = 0;
+        int digits = 0;
+        while (hasByte()) {
+            byte current = window.get();
+            if (current == '\n') {
+                break;
+            }
+            if (current == '\r') {
+                continue;
+            }
+            if ((current == '-' || current == '+') && digits == 0 && !signed) {
+                signed = true;
+                negative = current == '-';
+            } else if (current >= '0' && current <= '9') {
+                value = value * 10 + (current - '0');
+                digits++;
+                // same exception type Integer.parseInt throws on the stream path
+                if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                    throw new NumberFormatException("Number out of int range near byte " + (windowEnd - window.remaining()));
+                }
+            } else {
+                throw new NumberFormatException("Malformed number near byte " + (windowEnd - window.remaining()));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Empty number near byte " + (windowEnd - window.remaining()));
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private boolean hasByte() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (windowEnd >= size) {
+            return false;
+        }
+        long length = Math.min(MappedWindow.WINDOW_SIZE, size - windowEnd);
+        // cleared first, a failed map must not leave the released window reachable
+        MappedWindow.unmap(window);
+        window = null;
+        window = MappedWindow.map(channel, FileChannel.MapMode.READ_ONLY, windowEnd, length);
+        windowEnd += length;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        MappedWindow.unmap(window);
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class MappedTextRunWriter implements RunWriter {
+    private static final int MAX_LINE = 12;
+
+    private final FileChannel channel;
+    private final byte[] digits = new byte[MAX_LINE];
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    public MappedTextRunWriter(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.window = MappedWindow.map(channel, FileChannel.MapMode.READ_WRITE, 0, MappedWindow.WINDOW_SIZE);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (window.remaining() < MAX_LINE) {
+            windowStart += window.position();
+            MappedWindow.unmap(window);
+            window = MappedWindow.map(channel, FileChannel.MapMode.READ_WRITE, windowStart, MappedWindow.WINDOW_SIZE);
+        }
+        int position = MAX_LINE;
+        digits[--position] = '\n';
+        long remaining = Math.abs((long) value);
+        do {
+            digits[--position] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) {
+            digits[--position] = '-';
+        }
+        window.put(digits, position, MAX_LINE - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        long written = windowStart + window.position();
+        MappedWindow.unmap(window);
+        window = null;
+        try {
+            channel.truncate(written);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+final class MappedWindow {
+    static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+    // Unsafe.invokeCleaner releases a mapping right away, without it windows stay mapped until the GC finds them;
+    // touching a released window crashes the JVM, so windows never leave the reader or writer that mapped them
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.out.println("Mapped windows cannot be released early (" + e + "), the GC will unmap them");
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedWindow() {
+    }
+
+    static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+        MappedByteBuffer window = channel.map(mode, position, size);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        return window;
+    }
+
+    // the window must not be touched afterwards, callers drop their reference together with this call
+    static void unmap(MappedByteBuffer window) {
+        if (window == null || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, window);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Cannot release a mapped window (" + e + "), the GC will unmap it");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+
+public enum RunFormat {
+    TEXT(".txt", 0),
+    INT32(".bin", Integer.BYTES),
+    INT64(".bin", Long.BYTES),
+    DELTA_VARINT(".dvi", 0);
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+    private final int recordSize;
+
+    RunFormat(String extension, int recordSize) {
+        this.extension = extension;
+        this.recordSize = recordSize;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public boolean isFixedWidth() {
+        return recordSize > 0;
+    }
+
+    public RunReader openReader(File file) throws IOException {
+        return openReader(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RunReader openReader(File file, int bufferSize) throws IOException {
+        if (this == TEXT) {
+            return new TextRunReader(file, bufferSize);
+        }
+        if (this == DELTA_VARINT) {
+            return new DeltaVarintRunReader(file, bufferSize);
+        }
+        return new BinaryRunReader(file, recordSize, bufferSize);
+    }
+
+    public RunWriter openWriter(File file) throws IOException {
+        return openWriter(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RunWriter openWriter(File file, int bufferSize) throws IOException {
+        if (this == TEXT) {
+            return new TextRunWriter(file, bufferSize);
+        }
+        if (this == DELTA_VARINT) {
+            return new DeltaVarintRunWriter(file, bufferSize);
+        }
+        return new BinaryRunWriter(file, recordSize, bufferSize);
+    }
+
+    public static RunFormat parse(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,17 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface RunReader extends Closeable {
+
+    boolean hasNext() throws IOException;
+
+    int next() throws IOException;
+
+    default void skip(long records) throws IOException {
+        for (long i = 0; i < records; i++) {
+            next();
+        }
+    }
+}
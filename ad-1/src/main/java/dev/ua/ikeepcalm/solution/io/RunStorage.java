@@ -0,0 +1,103 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+public class RunStorage {
+    public static final int MIN_BUFFER_SIZE = 4 * 1024;
+    public static final int MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final int OUTPUT_SHARES = 2;
+
+    private final RunFormat format;
+    private final IoBackend backend;
+    private int readBufferSize = RunFormat.DEFAULT_BUFFER_SIZE;
+    private int writeBufferSize = RunFormat.DEFAULT_BUFFER_SIZE;
+    private volatile boolean directSupported = true;
+
+    public RunStorage(RunFormat format, IoBackend backend) {
+        if (backend == IoBackend.DIRECT && !format.isFixedWidth()) {
+            throw new IllegalArgumentException("Direct I/O needs a fixed-width run format, not " + format);
+        }
+        this.format = format;
+        this.backend = backend;
+    }
+
+    public RunFormat getFormat() {
+        return format;
+    }
+
+    public IoBackend getBackend() {
+        return backend;
+    }
+
+    public int getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public int getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public void sizeBuffers(long memoryBudget, int inputs) {
+        long share = memoryBudget / (inputs + OUTPUT_SHARES);
+        readBufferSize = alignBufferSize(share);
+        writeBufferSize = alignBufferSize(share * OUTPUT_SHARES);
+    }
+
+    private static int alignBufferSize(long size) {
+        long clamped = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, size));
+        return (int) (clamped / MIN_BUFFER_SIZE * MIN_BUFFER_SIZE);
+    }
+
+    public RunReader openReader(File file) throws IOException {
+        if (backend == IoBackend.MAPPED && format == RunFormat.TEXT) {
+            return new MappedTextRunReader(file);
+        }
+        if (backend == IoBackend.MAPPED && format.isFixedWidth()) {
+            return new MappedRunReader(file, format.getRecordSize());
+        }
+        if (backend == IoBackend.DIRECT && format.isFixedWidth() && directSupported) {
+            try {
+                return new DirectRunReader(file, format.getRecordSize(), readBufferSize);
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (IOException | UnsupportedOperationException e) {
+                disableDirect(e);
+            }
+        }
+        return format.openReader(file, readBufferSize);
+    }
+
+    public RunWriter openWriter(File file) throws IOException {
+        if (backend == IoBackend.MAPPED && format == RunFormat.TEXT) {
+            return new MappedTextRunWriter(file);
+        }
+        if (backend == IoBackend.MAPPED && format.isFixedWidth()) {
+            return new MappedRunWriter(file, format.getRecordSize());
+        }
+        if (backend == IoBackend.DIRECT && format.isFixedWidth() && directSupported) {
+            try {
+                return new DirectRunWriter(file, format.getRecordSize(), writeBufferSize);
+            } catch (IOException | UnsupportedOperationException e) {
+                disableDirect(e);
+            }
+        }
+        return format.openWriter(file, writeBufferSize);
+    }
+
+    private synchronized void disableDirect(Exception e) {
+        if (directSupported) {
+            System.out.println("Direct I/O is not available (" + e.getMessage() + "), falling back to buffered I/O");
+            directSupported = false;
+        }
+    }
+
+    public RunReader openTextReader(File file) throws IOException {
+        return backend == IoBackend.MAPPED ? new MappedTextRunReader(file) : new TextRunReader(file, readBufferSize);
+    }
+
+    public RunWriter openTextWriter(File file) throws IOException {
+        return backend == IoBackend.MAPPED ? new MappedTextRunWriter(file) : new TextRunWriter(file, writeBufferSize);
+    }
+}
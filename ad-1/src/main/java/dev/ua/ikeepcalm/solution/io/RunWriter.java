@@ -0,0 +1,9 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface RunWriter extends Closeable {
+
+    void write(int value) throws IOException;
+}
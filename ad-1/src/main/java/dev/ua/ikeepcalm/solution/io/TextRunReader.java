@@ -0,0 +1,46 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public class TextRunReader implements RunReader {
+    private final BufferedReader reader;
+    private String line;
+
+    public TextRunReader(File file) throws IOException {
+        this(new FileReader(file));
+    }
+
+    public TextRunReader(File file, int bufferSize) throws IOException {
+        this(new BufferedReader(new FileReader(file), bufferSize));
+    }
+
+    public TextRunReader(Reader reader) throws IOException {
+        this(new BufferedReader(reader));
+    }
+
+    private TextRunReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        this.line = reader.readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return line != null;
+    }
+
+    @Override
+    public int next() throws IOException {
+        int value = Integer.parseInt(line);
+        line = reader.readLine();
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
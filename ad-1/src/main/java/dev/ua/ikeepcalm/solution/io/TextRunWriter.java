@@ -0,0 +1,29 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class TextRunWriter implements RunWriter {
+    private final BufferedWriter writer;
+
+    public TextRunWriter(File file) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(file));
+    }
+
+    public TextRunWriter(File file, int bufferSize) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(file), bufferSize);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        writer.write(Integer.toString(value));
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
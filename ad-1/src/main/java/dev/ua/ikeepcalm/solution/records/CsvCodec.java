@@ -0,0 +1,100 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class CsvCodec implements RecordCodec<String[]> {
+    private final char delimiter;
+    private final Pattern splitter;
+
+    public CsvCodec(char delimiter) {
+        if (delimiter == '"') {
+            throw new IllegalArgumentException("The quote character cannot be the delimiter");
+        }
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("The delimiter must be a single-byte ASCII character");
+        }
+        this.delimiter = delimiter;
+        this.splitter = Pattern.compile(Pattern.quote(String.valueOf(delimiter)));
+    }
+
+    @Override
+    public String[] decode(byte[] buffer, int offset, int length) {
+        String line = new String(buffer, offset, length, StandardCharsets.UTF_8);
+        if (line.indexOf('"') < 0) {
+            return splitter.split(line, -1);
+        }
+        return parseQuoted(line);
+    }
+
+    // a line break inside a quoted field belongs to the record, the quote state is tracked on the raw bytes
+    @Override
+    public boolean isComplete(byte[] buffer, int offset, int length) {
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte current = buffer[i];
+            if (quoted) {
+                if (current == '"') {
+                    if (i + 1 < end && buffer[i + 1] == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (current == '"' && fieldStart) {
+                quoted = true;
+            }
+            fieldStart = !quoted && current == delimiter;
+        }
+        return !quoted;
+    }
+
+    // RFC 4180 quoting: a field wrapped in quotes may hold the delimiter and line breaks, "" stands for one quote
+    private String[] parseQuoted(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int position = 0;
+        while (true) {
+            field.setLength(0);
+            if (position < line.length() && line.charAt(position) == '"') {
+                position++;
+                while (true) {
+                    if (position >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char current = line.charAt(position++);
+                    if (current != '"') {
+                        field.append(current);
+                    } else if (position < line.length() && line.charAt(position) == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                if (position < line.length() && line.charAt(position) != delimiter) {
+                    throw new IllegalArgumentException("Unexpected character after a closing quote at column " + (position + 1));
+                }
+            } else {
+                int end = line.indexOf(delimiter, position);
+                if (end < 0) {
+                    end = line.length();
+                }
+                if (line.lastIndexOf('"', end - 1) >= position) {
+                    throw new IllegalArgumentException("Quote inside an unquoted field at column " + (position + 1));
+                }
+                field.append(line, position, end);
+                position = end;
+            }
+            fields.add(field.toString());
+            if (position >= line.length()) {
+                return fields.toArray(new String[0]);
+            }
+            position++;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import dev.ua.ikeepcalm.solution.LoserTree;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public class ExternalSorter<T> {
+    private static final int MERGE_BUFFER_SIZE = 64 * 1024;
+
+    private final RecordCodec<T> codec;
+    private final ToLongFunction<T> keyExtractor;
+    private final Comparator<T> comparator;
+    private final int availableMemory;
+    private File temporaryDirectory = new File(System.getProperty("java.io.tmpdir"));
+
+    public ExternalSorter(RecordCodec<T> codec, ToLongFunction<T> keyExtractor, int availableMemory) {
+        this(codec, keyExtractor, null, availableMemory);
+    }
+
+    public ExternalSorter(RecordCodec<T> codec, Comparator<T> comparator, int availableMemory) {
+        this(codec, null, comparator, availableMemory);
+    }
+
+    public ExternalSorter(RecordCodec<T> codec, ToLongFunction<T> keyExtractor, Comparator<T> comparator, int availableMemory) {
+        if (keyExtractor == null && comparator == null) {
+            throw new IllegalArgumentException("Either a key extractor or a comparator is required");
+        }
+        this.codec = codec;
+        this.keyExtractor = keyExtractor;
+        this.comparator = comparator;
+        this.availableMemory = availableMemory;
+    }
+
+    public void setTemporaryDirectory(File temporaryDirectory) {
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    public void sort(File input, File output) throws IOException {
+        List<File> runs = new ArrayList<>();
+        try {
+            splitAndSortRuns(input, runs);
+            int fanIn = Math.max(2, availableMemory / MERGE_BUFFER_SIZE - 1);
+            while (runs.size() > fanIn) {
+                System.out.println("Merging " + runs.size() + " record runs with fan-in " + fanIn + "...");
+                List<File> merged = new ArrayList<>();
+                try {
+                    for (int from = 0; from < runs.size(); from += fanIn) {
+                        List<File> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                        File run = createRunFile();
+                        merged.add(run);
+                        try (DataOutputStream writer = openRun(run)) {
+                            mergeRuns(group, record -> {
+                                writer.writeInt(record.length);
+                                writer.writeLong(record.key);
+                                writer.write(record.record, 0, record.length);
+                            });
+                        }
+                        group.forEach(File::delete);
+                    }
+                } finally {
+                    runs.forEach(File::delete);
+                    runs = merged;
+                }
+            }
+
+            try (OutputStream writer = new BufferedOutputStream(new FileOutputStream(output), MERGE_BUFFER_SIZE)) {
+                mergeRuns(runs, record -> {
+                    writer.write(record.record, 0, record.length);
+                    writer.write('\n');
+                });
+            }
+        } finally {
+            runs.forEach(File::delete);
+        }
+    }
+
+    private void splitAndSortRuns(File input, List<File> runs) throws IOException {
+        int arenaSize = Math.max(1, availableMemory / 2);
+        int capacity = Math.max(1, availableMemory / 2 / RecordBuffer.BYTES_PER_RECORD);
+        RecordBuffer<T> buffer = new RecordBuffer<>(codec, keyExtractor, comparator, arenaSize, capacity);
+
+        long lineNumber = 0;
+        long skipped = 0;
+        try (LineReader reader = new LineReader(new FileInputStream(input), MERGE_BUFFER_SIZE)) {
+            int length;
+            while ((length = reader.readLine(0)) >= 0) {
+                lineNumber++;
+                // blank lines hold no record, a trailing newline or a separator line would otherwise break key extraction
+                if (length == 0) {
+                    skipped++;
+                    continue;
+                }
+                long firstLine = lineNumber;
+                while (true) {
+                    if (!buffer.canHold(length)) {
+                        throw new IOException("Record of " + length + " bytes on line " + firstLine + " does not fit into the memory budget");
+                    }
+                    if (codec.isComplete(reader.line, 0, length)) {
+                        break;
+                    }
+                    length = reader.continueLine(length);
+                    if (length < 0) {
+                        throw new IOException("The record starting on line " + firstLine + " is not terminated before the end of the input");
+                    }
+                    lineNumber++;
+                }
+                if (!buffer.fits(length)) {
+                    runs.add(writeRun(buffer));
+                }
+                try {
+                    buffer.add(reader.line, length);
+                } catch (RuntimeException e) {
+                    throw new IOException("Cannot read the record on line " + firstLine + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        if (skipped > 0) {
+            System.out.println("Skipped " + skipped + " blank lines");
+        }
+        if (!buffer.isEmpty()) {
+            runs.add(writeRun(buffer));
+        }
+    }
+
+    private File writeRun(RecordBuffer<T> buffer) throws IOException {
+        System.out.println("Sorting record chunk...");
+        buffer.sort();
+        File run = createRunFile();
+        try (DataOutputStream writer = openRun(run)) {
+            buffer.writeTo(writer);
+        } catch (IOException | RuntimeException e) {
+            run.delete();
+            throw e;
+        }
+        buffer.clear();
+        return run;
+    }
+
+    private File createRunFile() throws IOException {
+        if (!temporaryDirectory.isDirectory() && !temporaryDirectory.mkdirs()) {
+            throw new IOException("Cannot create the temporary directory " + temporaryDirectory);
+        }
+        File run = File.createTempFile("records", ".bin", temporaryDirectory);
+        run.deleteOnExit();
+        return run;
+    }
+
+    private DataOutputStream openRun(File run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), MERGE_BUFFER_SIZE));
+    }
+
+    private void mergeRuns(List<File> runs, RecordConsumer<T> consumer) throws IOException {
+        List<RunCursor<T>> cursors = new ArrayList<>();
+        LoserTree loserTree = new LoserTree(runs.size(), (a, b) -> compare(cursors.get(a), cursors.get(b)));
+        try {
+            loserTree.reset(runs.size());
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor<T> cursor = new RunCursor<>(runs.get(i), codec, MERGE_BUFFER_SIZE);
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    loserTree.set(i);
+                }
+            }
+            loserTree.build();
+            while (!loserTree.isEmpty()) {
+                RunCursor<T> smallest = cursors.get(loserTree.winner());
+                consumer.accept(smallest);
+                if (smallest.advance()) {
+                    loserTree.advanceWinner();
+                } else {
+                    loserTree.exhaustWinner();
+                }
+            }
+        } finally {
+            for (RunCursor<T> cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private int compare(RunCursor<T> a, RunCursor<T> b) {
+        int result = Long.compare(a.key, b.key);
+        if (result != 0 || comparator == null) {
+            return result;
+        }
+        return comparator.compare(a.decoded(), b.decoded());
+    }
+
+    // scans its own block buffer for newlines instead of reading the stream byte by byte
+    private static class LineReader implements Closeable {
+        private final InputStream input;
+        private final byte[] buffer;
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+
+        LineReader(InputStream input, int bufferSize) {
+            this.input = input;
+            this.buffer = new byte[bufferSize];
+        }
+
+        // reads the next line into line[from..], from > 0 keeps what an earlier call left there
+        int readLine(int from) throws IOException {
+            int length = from;
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    int read = input.read(buffer);
+                    if (read < 0) {
+                        return started ? trimCarriageReturn(length) : -1;
+                    }
+                    position = 0;
+                    limit = read;
+                    continue;
+                }
+                started = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int chunk = position - start;
+                if (length + chunk > line.length) {
+                    line = Arrays.copyOf(line, Math.max(length + chunk, line.length * 2));
+                }
+                System.arraycopy(buffer, start, line, length, chunk);
+                length += chunk;
+                if (position < limit) {
+                    position++;
+                    return trimCarriageReturn(length);
+                }
+            }
+        }
+
+        // joins the next line onto the first length bytes, a CRLF inside the record is kept as a bare LF
+        int continueLine(int length) throws IOException {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[length] = '\n';
+            return readLine(length + 1);
+        }
+
+        private int trimCarriageReturn(int length) {
+            return length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private interface RecordConsumer<T> {
+        void accept(RunCursor<T> record) throws IOException;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.ua.ikeepcalm.solution.records;
+
+public final class Keys {
+
+    private Keys() {
+    }
+
+    public static long stringPrefix(String value) {
+        long prefix = 0;
+        for (int i = 0; i < 4; i++) {
+            prefix <<= 16;
+            if (i < value.length()) {
+                prefix |= value.charAt(i);
+            }
+        }
+        return prefix ^ Long.MIN_VALUE;
+    }
+}
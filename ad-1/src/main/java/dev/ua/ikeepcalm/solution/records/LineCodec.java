@@ -0,0 +1,11 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import java.nio.charset.StandardCharsets;
+
+public class LineCodec implements RecordCodec<String> {
+
+    @Override
+    public String decode(byte[] buffer, int offset, int length) {
+        return new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+}
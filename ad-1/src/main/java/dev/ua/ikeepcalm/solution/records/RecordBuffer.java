@@ -0,0 +1,121 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+class RecordBuffer<T> {
+    static final int BYTES_PER_RECORD = 2 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES;
+
+    private final RecordCodec<T> codec;
+    private final ToLongFunction<T> keyExtractor;
+    private final Comparator<T> comparator;
+    private final byte[] arena;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final long[] keys;
+    // comparator input, decoded once per record instead of on every comparison
+    private final Object[] decoded;
+    private final int[] order;
+    private final int[] scratch;
+    private int used;
+    private int size;
+
+    RecordBuffer(RecordCodec<T> codec, ToLongFunction<T> keyExtractor, Comparator<T> comparator, int arenaSize, int capacity) {
+        this.codec = codec;
+        this.keyExtractor = keyExtractor;
+        this.comparator = comparator;
+        this.arena = new byte[arenaSize];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.keys = new long[capacity];
+        this.decoded = comparator == null ? null : new Object[capacity];
+        this.order = new int[capacity];
+        this.scratch = new int[capacity];
+    }
+
+    boolean fits(int length) {
+        return size < offsets.length && used + length <= arena.length;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean canHold(int length) {
+        return length <= arena.length;
+    }
+
+    void add(byte[] record, int length) {
+        System.arraycopy(record, 0, arena, used, length);
+        offsets[size] = used;
+        lengths[size] = length;
+        T value = codec.decode(arena, used, length);
+        keys[size] = keyExtractor == null ? 0 : keyExtractor.applyAsLong(value);
+        if (decoded != null) {
+            decoded[size] = value;
+        }
+        order[size] = size;
+        used += length;
+        size++;
+    }
+
+    void sort() {
+        mergeSort(0, size);
+    }
+
+    private void mergeSort(int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(from, middle);
+        mergeSort(middle, to);
+        if (compare(order[middle - 1], order[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(scratch[left], scratch[right]) <= 0)) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private int compare(int a, int b) {
+        int result = Long.compare(keys[a], keys[b]);
+        if (result != 0 || comparator == null) {
+            return result;
+        }
+        return comparator.compare(decoded(a), decoded(b));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T decoded(int record) {
+        return (T) decoded[record];
+    }
+
+    long writeTo(DataOutputStream output) throws IOException {
+        for (int i = 0; i < size; i++) {
+            int record = order[i];
+            output.writeInt(lengths[record]);
+            output.writeLong(keys[record]);
+            output.write(arena, offsets[record], lengths[record]);
+        }
+        return size;
+    }
+
+    void clear() {
+        if (decoded != null) {
+            Arrays.fill(decoded, 0, size, null);
+        }
+        used = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,12 @@
+package dev.ua.ikeepcalm.solution.records;
+
+// records are written back verbatim, a codec only has to turn their bytes into something keys can be taken from
+public interface RecordCodec<T> {
+
+    T decode(byte[] buffer, int offset, int length);
+
+    // false asks for the next line to be joined on, for formats whose records may contain line breaks
+    default boolean isComplete(byte[] buffer, int offset, int length) {
+        return true;
+    }
+}
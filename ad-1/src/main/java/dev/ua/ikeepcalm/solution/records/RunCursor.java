@@ -0,0 +1,50 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+class RunCursor<T> implements Closeable {
+    private final DataInputStream input;
+    private final RecordCodec<T> codec;
+    byte[] record = new byte[256];
+    int length;
+    long key;
+    private T decoded;
+
+    RunCursor(File file, RecordCodec<T> codec, int bufferSize) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), bufferSize));
+        this.codec = codec;
+    }
+
+    boolean advance() throws IOException {
+        try {
+            length = input.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        key = input.readLong();
+        if (record.length < length) {
+            record = new byte[Math.max(length, record.length * 2)];
+        }
+        input.readFully(record, 0, length);
+        decoded = null;
+        return true;
+    }
+
+    T decoded() {
+        if (decoded == null) {
+            decoded = codec.decode(record, 0, length);
+        }
+        return decoded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
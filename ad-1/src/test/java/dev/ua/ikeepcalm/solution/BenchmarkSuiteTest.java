@@ -0,0 +1,67 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BenchmarkSuiteTest {
+
+    @Test
+    void runFormatBenchmarksReportThroughput() throws RunnerException {
+        assertReportsThroughput(RunFormatBenchmark.class, 2, options(RunFormatBenchmark.class)
+                .param("storageOption", "DELTA_VARINT/STREAM"));
+    }
+
+    @Test
+    void runGenerationBenchmarkReportsThroughput() throws RunnerException {
+        assertReportsThroughput(RunGenerationBenchmark.class, 1, options(RunGenerationBenchmark.class)
+                .param("strategy", "PIPELINED")
+                .param("availableMemory", "1048576"));
+    }
+
+    @Test
+    void mergeBenchmarkReportsThroughput() throws RunnerException {
+        assertReportsThroughput(MergeBenchmark.class, 1, options(MergeBenchmark.class)
+                .param("tapes", "5")
+                .param("format", "INT32"));
+    }
+
+    @Test
+    void endToEndBenchmarkReportsThroughput() throws RunnerException {
+        assertReportsThroughput(EndToEndBenchmark.class, 1, options(EndToEndBenchmark.class)
+                .param("sizeInMB", "16")
+                .param("memoryInMB", "4")
+                .param("format", "INT32"));
+    }
+
+    // one short in-process iteration per benchmark, enough to prove setup, the benchmark and teardown run
+    private static ChainedOptionsBuilder options(Class<?> benchmark) {
+        return new OptionsBuilder()
+                .include(benchmark.getName() + "\\.")
+                .forks(0)
+                .warmupIterations(0)
+                .measurementIterations(1)
+                .measurementTime(TimeValue.milliseconds(1));
+    }
+
+    private static void assertReportsThroughput(Class<?> benchmark, int methods, ChainedOptionsBuilder options) throws RunnerException {
+        Collection<RunResult> results = new Runner(options.build()).run();
+        assertEquals(methods, results.size(), benchmark.getSimpleName());
+        for (RunResult result : results) {
+            Result<?> megabytes = result.getSecondaryResults().get("megabytes");
+            assertNotNull(megabytes, result.getParams().getBenchmark());
+            assertTrue(megabytes.getScore() > 0, result.getParams().getBenchmark());
+        }
+    }
+}
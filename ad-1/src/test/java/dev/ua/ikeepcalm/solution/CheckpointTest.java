@@ -0,0 +1,132 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointTest {
+    private static final int RUNS = 30;
+    private static final int RUN_LENGTH = 100;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void savedStateLoadsBackWithItsIdentity() throws IOException {
+        Checkpoint checkpoint = new Checkpoint(new File(directory, "manifest"), identity("a"));
+        assertNull(checkpoint.load());
+
+        Properties state = new Properties();
+        state.setProperty("stage", Checkpoint.MERGING);
+        checkpoint.save(state);
+        Properties loaded = checkpoint.load();
+        assertEquals(Checkpoint.MERGING, loaded.getProperty("stage"));
+        assertEquals("a", loaded.getProperty("input"));
+
+        checkpoint.delete();
+        assertNull(checkpoint.load());
+    }
+
+    @Test
+    void changedIdentityMakesTheCheckpointStale() throws IOException {
+        File manifest = new File(directory, "manifest");
+        new Checkpoint(manifest, identity("a")).save(new Properties());
+        assertNull(new Checkpoint(manifest, identity("b")).load());
+    }
+
+    @Test
+    void mergeResumesAfterDistribution() throws IOException {
+        int[] values = new Random(1).ints(RUNS * RUN_LENGTH).toArray();
+        TapeGroup interrupted = group("a");
+        distribute(interrupted, values);
+        interrupted.close();
+
+        TapeGroup resumed = group("a");
+        assertTrue(resumed.restore());
+        assertArrayEquals(Sorting.sorted(values), merge(resumed));
+    }
+
+    @Test
+    void mergeResumesFromTheLastCompletedPhase() throws IOException {
+        int[] values = new Random(2).ints(RUNS * RUN_LENGTH).toArray();
+        TapeGroup interrupted = group("a");
+        distribute(interrupted, values);
+        // the final phase fails, every intermediate phase has already been checkpointed
+        RunWriter failing = new ConsumerRunWriter(value -> {
+            throw new UncheckedIOException(new IOException("disk full"));
+        });
+        assertThrows(UncheckedIOException.class, () -> interrupted.merge(failing));
+        interrupted.close();
+        Properties state = new Checkpoint(new File(directory, "tape1.bin.manifest"), identity("a")).load();
+        assertEquals(Checkpoint.MERGING, state.getProperty("stage"));
+
+        TapeGroup resumed = group("a");
+        assertTrue(resumed.restore());
+        assertArrayEquals(Sorting.sorted(values), merge(resumed));
+
+        resumed.delete();
+        assertArrayEquals(new String[0], directory.list());
+    }
+
+    @Test
+    void staleCheckpointIsNotRestored() throws IOException {
+        TapeGroup interrupted = group("a");
+        distribute(interrupted, new Random(3).ints(RUNS * RUN_LENGTH).toArray());
+        interrupted.close();
+
+        assertFalse(group("b").restore());
+    }
+
+    private TapeGroup group(String input) {
+        List<String> files = Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32);
+        TapeGroup group = new TapeGroup(files, new RunStorage(RunFormat.INT32, IoBackend.STREAM), new SortMetrics(null), MergeMode.SORT);
+        group.enableCheckpoint(new Checkpoint(new File(files.get(0) + ".manifest"), identity(input)));
+        return group;
+    }
+
+    private static void distribute(TapeGroup group, int[] values) throws IOException {
+        group.startDistribution();
+        for (int from = 0; from < values.length; from += RUN_LENGTH) {
+            RunWriter writer = group.beginRun();
+            for (int value : Sorting.sorted(Arrays.copyOfRange(values, from, from + RUN_LENGTH))) {
+                writer.write(value);
+            }
+            group.endRun(RUN_LENGTH);
+        }
+        group.finishDistribution();
+    }
+
+    private static int[] merge(TapeGroup group) throws IOException {
+        IntStream.Builder merged = IntStream.builder();
+        try (RunWriter writer = new ConsumerRunWriter(merged::add)) {
+            group.merge(writer);
+        }
+        return merged.build().toArray();
+    }
+
+    private static Properties identity(String input) {
+        Properties identity = new Properties();
+        identity.setProperty("input", input);
+        return identity;
+    }
+}
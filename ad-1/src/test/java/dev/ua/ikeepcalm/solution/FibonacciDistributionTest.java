@@ -0,0 +1,159 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FibonacciDistributionTest {
+
+    @Test
+    void threeTapesFollowFibonacciNumbers() {
+        int[] fibonacci = {1, 1, 2, 3, 5, 8, 13, 21, 34, 55};
+        for (int runs = 1; runs <= 55; runs++) {
+            Tape[] tapes = distribute(3, runs);
+            int level = levelAfter(3, runs);
+            assertArrayEquals(new int[]{fibonacci[level], fibonacci[level - 1], 0}, totals(tapes), "runs = " + runs);
+        }
+    }
+
+    @Test
+    void fourTapesFollowThirdOrderNumbers() {
+        int[][] perfect = {{1, 1, 1}, {2, 2, 1}, {4, 3, 2}, {7, 6, 4}, {13, 11, 7}};
+        for (int runs = 1; runs <= 31; runs++) {
+            Tape[] tapes = distribute(4, runs);
+            int[] expected = Arrays.copyOf(perfect[levelAfter(4, runs) - 1], 4);
+            assertArrayEquals(expected, totals(tapes), "runs = " + runs);
+        }
+    }
+
+    @Test
+    void dummyRunsPadToTheSmallestPerfectDistribution() {
+        for (int tapeCount = 3; tapeCount <= 9; tapeCount++) {
+            List<int[]> levels = perfectLevels(tapeCount - 1, 400);
+            for (int runs = 1; runs <= 300; runs++) {
+                Tape[] tapes = distribute(tapeCount, runs);
+                int[] totals = totals(tapes);
+                String where = tapeCount + " tapes, " + runs + " runs";
+
+                int level = levelAfter(tapeCount, runs);
+                assertArrayEquals(Arrays.copyOf(levels.get(level - 1), tapeCount), totals, where);
+                assertTrue(level == 1 || sum(levels.get(level - 2)) < runs, where);
+                assertEquals(runs, sum(realRuns(tapes)), where);
+                assertTrue(mergesToOneRun(Arrays.copyOf(totals, tapeCount - 1)), where);
+
+                // dummies never land on the output tape
+                assertEquals(0, tapes[tapeCount - 1].dummyRuns, where);
+            }
+        }
+    }
+
+    @Test
+    void noRunsLeaveNoDummies() {
+        Tape[] tapes = tapes(5);
+        FibonacciDistribution distribution = new FibonacciDistribution(tapes);
+        distribution.finish();
+        assertEquals(0, distribution.getLevel());
+        assertEquals(0, sum(totals(tapes)));
+    }
+
+    private static Tape[] distribute(int tapeCount, int runs) {
+        Tape[] tapes = tapes(tapeCount);
+        FibonacciDistribution distribution = new FibonacciDistribution(tapes);
+        for (int run = 0; run < runs; run++) {
+            distribution.nextTape().runs.add(1L);
+        }
+        distribution.finish();
+        return tapes;
+    }
+
+    private static int levelAfter(int tapeCount, int runs) {
+        FibonacciDistribution distribution = new FibonacciDistribution(tapes(tapeCount));
+        for (int run = 0; run < runs; run++) {
+            distribution.nextTape();
+        }
+        return distribution.getLevel();
+    }
+
+    private static Tape[] tapes(int count) {
+        Tape[] tapes = new Tape[count];
+        for (int i = 0; i < count; i++) {
+            tapes[i] = new Tape(new File("tape" + i));
+        }
+        return tapes;
+    }
+
+    private static int[] realRuns(Tape[] tapes) {
+        return Arrays.stream(tapes).mapToInt(tape -> tape.runs.size()).toArray();
+    }
+
+    private static int[] totals(Tape[] tapes) {
+        return Arrays.stream(tapes).mapToInt(Tape::runCount).toArray();
+    }
+
+    private static int sum(int[] values) {
+        return Arrays.stream(values).sum();
+    }
+
+    // generalized Fibonacci numbers of order inputs, one perfect distribution per level
+    private static List<int[]> perfectLevels(int inputs, int maxTotal) {
+        List<int[]> levels = new ArrayList<>();
+        int[] level = new int[inputs];
+        Arrays.fill(level, 1);
+        levels.add(level);
+        while (sum(level) <= maxTotal) {
+            int[] next = new int[inputs];
+            for (int i = 0; i < inputs; i++) {
+                next[i] = level[0] + (i + 1 < inputs ? level[i + 1] : 0);
+            }
+            levels.add(next);
+            level = next;
+        }
+        return levels;
+    }
+
+    // plays the merge phases out, a perfect distribution empties exactly one tape per phase and ends with one run
+    private static boolean mergesToOneRun(int[] inputs) {
+        int[] counts = Arrays.copyOf(inputs, inputs.length + 1);
+        int output = inputs.length;
+        while (sum(counts) > 1) {
+            int phase = Integer.MAX_VALUE;
+            for (int i = 0; i < counts.length; i++) {
+                if (i != output) {
+                    if (counts[i] == 0) {
+                        return false;
+                    }
+                    phase = Math.min(phase, counts[i]);
+                }
+            }
+            int emptied = -1;
+            int emptiedCount = 0;
+            int left = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (i != output) {
+                    counts[i] -= phase;
+                    left += counts[i];
+                    if (counts[i] == 0) {
+                        emptied = i;
+                        emptiedCount++;
+                    }
+                }
+            }
+            counts[output] += phase;
+            if (left == 0) {
+                return counts[output] == 1;
+            }
+            if (emptiedCount != 1) {
+                return false;
+            }
+            output = emptied;
+        }
+        return true;
+    }
+}
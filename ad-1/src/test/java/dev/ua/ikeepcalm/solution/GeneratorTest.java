@@ -0,0 +1,108 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratorTest {
+
+    // large enough to be split into several segments
+    private static final long SEVERAL_SEGMENTS = 12L * 1024 * 1024 + 5;
+    // more segments than four per thread for a single thread
+    private static final long MANY_SEGMENTS = 20L * 1024 * 1024 + 5;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void sameSeedGivesTheSameTextWhateverTheThreadCount() throws IOException {
+        assertArrayEquals(generate(MANY_SEGMENTS, ValueDistribution.UNIFORM, RunFormat.TEXT, 1, 42),
+                generate(MANY_SEGMENTS, ValueDistribution.UNIFORM, RunFormat.TEXT, 8, 42));
+    }
+
+    @Test
+    void sameSeedGivesTheSameBinaryWhateverTheThreadCount() throws IOException {
+        assertArrayEquals(generate(MANY_SEGMENTS, ValueDistribution.ZIPF, RunFormat.INT64, 1, 7),
+                generate(MANY_SEGMENTS, ValueDistribution.ZIPF, RunFormat.INT64, 3, 7));
+    }
+
+    @Test
+    void differentSeedsGiveDifferentFiles() throws IOException {
+        assertFalse(Arrays.equals(generate(4096, ValueDistribution.UNIFORM, RunFormat.TEXT, 1, 1),
+                generate(4096, ValueDistribution.UNIFORM, RunFormat.TEXT, 1, 2)));
+    }
+
+    @Test
+    void textFillsTheRequestedSizeWithWholeLines() throws IOException {
+        byte[] bytes = generate(SEVERAL_SEGMENTS, ValueDistribution.UNIFORM, RunFormat.TEXT, 4, 3);
+        // every segment stops after the line that reaches its budget
+        assertTrue(bytes.length >= SEVERAL_SEGMENTS, "length " + bytes.length);
+        assertTrue(bytes.length < SEVERAL_SEGMENTS + 3 * 12, "length " + bytes.length);
+        assertEquals('\n', bytes[bytes.length - 1]);
+
+        String[] lines = new String(bytes, StandardCharsets.US_ASCII).split("\n");
+        long total = 0;
+        for (String line : lines) {
+            int value = Integer.parseInt(line);
+            assertTrue(value >= 0 && value < Generator.DEFAULT_BOUND, line);
+            total += line.length() + 1;
+        }
+        assertEquals(bytes.length, total);
+    }
+
+    @Test
+    void binaryHoldsWholeAlignedRecords() throws IOException {
+        for (RunFormat format : new RunFormat[]{RunFormat.INT32, RunFormat.INT64}) {
+            byte[] bytes = generate(SEVERAL_SEGMENTS, ValueDistribution.UNIFORM, format, 4, 5);
+            int recordSize = format.getRecordSize();
+            // the odd byte count is rounded down to whole records instead of overshooting
+            assertEquals(SEVERAL_SEGMENTS - SEVERAL_SEGMENTS % recordSize, bytes.length, format.name());
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                long value = recordSize == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+                assertTrue(value >= 0 && value < Generator.DEFAULT_BOUND, format + " " + value);
+            }
+        }
+    }
+
+    @Test
+    void sortedInputStaysSortedAcrossSegments() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(generate(SEVERAL_SEGMENTS, ValueDistribution.SORTED, RunFormat.INT32, 4, 9))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int previous = buffer.getInt();
+        assertEquals(0, previous);
+        while (buffer.hasRemaining()) {
+            int value = buffer.getInt();
+            assertTrue(previous <= value, previous + " > " + value);
+            previous = value;
+        }
+        assertEquals(Generator.DEFAULT_BOUND - 1, previous);
+    }
+
+    @Test
+    void deltaVarintIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> generate(1024, ValueDistribution.UNIFORM, RunFormat.DELTA_VARINT, 1, 1));
+    }
+
+    private byte[] generate(long size, ValueDistribution distribution, RunFormat format, int threads, long seed) throws IOException {
+        File file = new File(directory, "generated-" + threads + "-" + seed + format.getExtension());
+        Generator.generate(file.getPath(), size, distribution, format, threads, seed);
+        return Files.readAllBytes(file.toPath());
+    }
+}
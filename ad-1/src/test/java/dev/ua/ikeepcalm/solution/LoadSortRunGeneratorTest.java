@@ -0,0 +1,65 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoadSortRunGeneratorTest {
+    private static final int BUFFER = 1_000;
+
+    @Test
+    void everyFullChunkBecomesOneSortedRun() throws IOException {
+        int[] values = new Random(1).ints(5 * BUFFER + 123).toArray();
+        List<int[]> runs = Sorting.runs(new LoadSortRunGenerator(new int[BUFFER], 0), values);
+
+        assertEquals(6, runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            int from = i * BUFFER;
+            int[] chunk = Arrays.copyOfRange(values, from, Math.min(values.length, from + BUFFER));
+            assertArrayEquals(Sorting.sorted(chunk), runs.get(i), "run " + i);
+        }
+    }
+
+    @Test
+    void exactMultipleOfTheBufferLeavesNoShortRun() throws IOException {
+        int[] values = new Random(2).ints(3 * BUFFER).toArray();
+        List<int[]> runs = Sorting.runs(new LoadSortRunGenerator(new int[BUFFER], 0), values);
+        assertEquals(3, runs.size());
+        runs.forEach(run -> assertEquals(BUFFER, run.length));
+    }
+
+    @Test
+    void preloadedRecordsStartTheFirstChunk() throws IOException {
+        int[] buffer = new int[BUFFER];
+        int[] preloaded = new Random(3).ints(BUFFER / 2).toArray();
+        System.arraycopy(preloaded, 0, buffer, 0, preloaded.length);
+        int[] values = new Random(4).ints(2 * BUFFER).toArray();
+        List<int[]> runs = Sorting.runs(new LoadSortRunGenerator(buffer, preloaded.length), values);
+
+        int[] first = IntStream.concat(IntStream.of(preloaded), IntStream.of(values).limit(BUFFER / 2)).toArray();
+        assertEquals(3, runs.size());
+        assertArrayEquals(Sorting.sorted(first), runs.get(0));
+    }
+
+    @Test
+    void fullyPreloadedBufferIsWrittenBeforeReading() throws IOException {
+        int[] buffer = new Random(5).ints(BUFFER).toArray();
+        int[] preloaded = buffer.clone();
+        List<int[]> runs = Sorting.runs(new LoadSortRunGenerator(buffer, BUFFER), new int[0]);
+        assertEquals(1, runs.size());
+        assertArrayEquals(Sorting.sorted(preloaded), runs.get(0));
+    }
+
+    @Test
+    void generationCreatesTheRequestedStrategy() {
+        assertEquals(LoadSortRunGenerator.class, RunGeneration.LOAD_SORT.create(4096).getClass());
+        assertEquals(RunGeneration.REPLACEMENT_SELECTION, RunGeneration.parse("replacement_selection"));
+    }
+}
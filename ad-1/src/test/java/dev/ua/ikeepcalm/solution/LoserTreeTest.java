@@ -0,0 +1,137 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoserTreeTest {
+
+    @Test
+    void mergesSourcesThatRunOutEarlyOrStartEmpty() {
+        int[][] sources = {
+                {1, 4, 9, 12, 20, 21, 22},
+                {},
+                {2},
+                {0, 3, 30},
+                {},
+                {5, 5, 5, 6}
+        };
+        assertArrayEquals(expected(sources), merge(sources));
+    }
+
+    @Test
+    void mergesRandomSourcesOfEveryWidth() {
+        Random random = new Random(11);
+        for (int width = 1; width <= 17; width++) {
+            int[][] sources = new int[width][];
+            for (int i = 0; i < width; i++) {
+                // roughly a third of the sources are empty or hold a single value
+                int length = random.nextInt(3) == 0 ? random.nextInt(2) : random.nextInt(50);
+                sources[i] = random.ints(length, -100, 100).sorted().toArray();
+            }
+            assertArrayEquals(expected(sources), merge(sources), "width = " + width);
+        }
+    }
+
+    @Test
+    void allSourcesEmptyLeavesTreeEmpty() {
+        LoserTree tree = new LoserTree(4);
+        tree.reset(4);
+        tree.build();
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void zeroSourcesLeaveTreeEmpty() {
+        LoserTree tree = new LoserTree(0);
+        tree.reset(0);
+        tree.build();
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void equalHeadsGoToTheLowerSource() {
+        int[][] sources = {{7, 7}, {7}, {7, 7, 7}};
+        List<Integer> order = new ArrayList<>();
+        LoserTree tree = new LoserTree(sources.length);
+        int[] positions = new int[sources.length];
+        tree.reset(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            tree.set(i, sources[i][0]);
+        }
+        tree.build();
+        while (!tree.isEmpty()) {
+            int source = tree.winner();
+            order.add(source);
+            if (++positions[source] < sources[source].length) {
+                tree.replaceWinner(sources[source][positions[source]]);
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        assertEquals(List.of(0, 0, 1, 2, 2, 2), order);
+    }
+
+    @Test
+    void externalHeadsAreComparedThroughSourceOrder() {
+        String[][] sources = {{"apple", "kiwi"}, {}, {"banana", "cherry", "plum"}, {"fig"}};
+        int[] positions = new int[sources.length];
+        LoserTree tree = new LoserTree(sources.length,
+                (a, b) -> sources[a][positions[a]].compareTo(sources[b][positions[b]]));
+        tree.reset(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].length > 0) {
+                tree.set(i);
+            }
+        }
+        tree.build();
+        List<String> merged = new ArrayList<>();
+        while (!tree.isEmpty()) {
+            int source = tree.winner();
+            merged.add(sources[source][positions[source]]);
+            if (++positions[source] < sources[source].length) {
+                tree.advanceWinner();
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        assertEquals(List.of("apple", "banana", "cherry", "fig", "kiwi", "plum"), merged);
+    }
+
+    private static int[] merge(int[][] sources) {
+        LoserTree tree = new LoserTree(sources.length);
+        int[] positions = new int[sources.length];
+        tree.reset(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].length > 0) {
+                tree.set(i, sources[i][0]);
+            }
+        }
+        tree.build();
+
+        int[] merged = new int[Arrays.stream(sources).mapToInt(source -> source.length).sum()];
+        int size = 0;
+        while (!tree.isEmpty()) {
+            int source = tree.winner();
+            merged[size++] = tree.winnerValue();
+            if (++positions[source] < sources[source].length) {
+                tree.replaceWinner(sources[source][positions[source]]);
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        assertEquals(merged.length, size);
+        return merged;
+    }
+
+    private static int[] expected(int[][] sources) {
+        return Arrays.stream(sources).flatMapToInt(Arrays::stream).sorted().toArray();
+    }
+}
@@ -0,0 +1,98 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MergeModeTest {
+    private static final int MEMORY = 1024;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void distinctKeepsOneOfEachValue() throws IOException {
+        int[] values = new Random(1).ints(30_000, -2_000, 2_000).toArray();
+        for (RunFormat format : new RunFormat[]{RunFormat.INT32, RunFormat.DELTA_VARINT}) {
+            int[] distinct = Sorting.sort(sorter(MergeMode.DISTINCT, format), values);
+            assertArrayEquals(Arrays.stream(values).distinct().sorted().toArray(), distinct, format.name());
+        }
+    }
+
+    @Test
+    void countTalliesEveryValue() throws IOException {
+        int[] values = new Random(2).ints(30_000, -500, 500).toArray();
+        Map<Integer, Long> expected = new TreeMap<>();
+        for (int value : values) {
+            expected.merge(value, 1L, Long::sum);
+        }
+        assertEquals(expected, aggregates(Sorting.sort(sorter(MergeMode.COUNT, RunFormat.INT32), values)));
+    }
+
+    @Test
+    void sumAddsValuesPerKeyBeyondIntRange() throws IOException {
+        Random random = new Random(3);
+        int[] pairs = new int[40_000];
+        Map<Integer, Long> expected = new TreeMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            pairs[i] = random.nextInt(300) - 150;
+            pairs[i + 1] = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt();
+            expected.merge(pairs[i], (long) pairs[i + 1], Long::sum);
+        }
+        assertEquals(expected, aggregates(Sorting.sort(sorter(MergeMode.SUM, RunFormat.INT32), pairs)));
+    }
+
+    @Test
+    void smallInputsAggregateWithoutTapes() throws IOException {
+        int[] values = {3, 1, 3, 3, -7, 1};
+        assertArrayEquals(new int[]{-7, 1, 3}, Sorting.sort(sorter(MergeMode.DISTINCT, RunFormat.INT32), values));
+        assertEquals(Map.of(-7, 1L, 1, 2L, 3, 3L), aggregates(Sorting.sort(sorter(MergeMode.COUNT, RunFormat.INT32), values)));
+    }
+
+    @Test
+    void sumOfAFewPairsStaysInMemory() throws IOException {
+        int[] pairs = {5, 10, -1, 3, 5, -4, 7, Integer.MAX_VALUE, 7, Integer.MAX_VALUE};
+        Polyphase sorter = sorter(MergeMode.SUM, RunFormat.INT32);
+        IntStream.Builder output = IntStream.builder();
+        int[] filesWhileWriting = {-1};
+        sorter.sort(new IteratorRunReader(IntStream.of(pairs).iterator()), () -> {
+            filesWhileWriting[0] = directory.list().length;
+            return new ConsumerRunWriter(output::add);
+        });
+        assertEquals(0, filesWhileWriting[0]);
+        assertEquals(Map.of(-1, 3L, 5, 6L, 7, 2L * Integer.MAX_VALUE), aggregates(output.build().toArray()));
+        assertEquals(1, sorter.getLastStats().runs());
+    }
+
+    private Polyphase sorter(MergeMode mode, RunFormat format) {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 4, format), MEMORY, format);
+        sorter.setMergeMode(mode);
+        return sorter;
+    }
+
+    // aggregated output is a key followed by the high and low half of its total, keys strictly ascending
+    private static Map<Integer, Long> aggregates(int[] output) {
+        assertEquals(0, output.length % RunCombiner.AGGREGATE_WIDTH);
+        Map<Integer, Long> totals = new TreeMap<>();
+        for (int i = 0; i < output.length; i += RunCombiner.AGGREGATE_WIDTH) {
+            if (i > 0 && output[i - RunCombiner.AGGREGATE_WIDTH] >= output[i]) {
+                throw new AssertionError("Key " + output[i] + " is out of order at record " + i / RunCombiner.AGGREGATE_WIDTH);
+            }
+            totals.put(output[i], ((long) output[i + 1] << 32) | (output[i + 2] & 0xFFFFFFFFL));
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,103 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelinedRunGeneratorTest {
+    private static final int MEMORY = 3_000;
+    private static final Duration NO_HANG = Duration.ofSeconds(10);
+
+    @Test
+    void runsAreSortedThirdsOfTheMemory() throws IOException {
+        int[] values = new Random(1).ints(10 * MEMORY + 17).toArray();
+        List<int[]> runs = Sorting.runs(new PipelinedRunGenerator(new int[MEMORY], 0), values);
+
+        for (int i = 0; i < runs.size(); i++) {
+            assertTrue(Sorting.isSorted(runs.get(i)));
+            if (i < runs.size() - 1) {
+                assertEquals(MEMORY / PipelinedRunGenerator.BUFFERS, runs.get(i).length);
+            }
+        }
+        assertArrayEquals(Sorting.sorted(values), Sorting.sorted(Sorting.concatenate(runs)));
+    }
+
+    @Test
+    void preloadedRecordsAreKept() throws IOException {
+        int[] memory = new int[MEMORY];
+        int[] preloaded = new Random(2).ints(MEMORY / 2).toArray();
+        System.arraycopy(preloaded, 0, memory, 0, preloaded.length);
+        int[] values = new Random(3).ints(2 * MEMORY).toArray();
+        List<int[]> runs = Sorting.runs(new PipelinedRunGenerator(memory, preloaded.length), values);
+
+        int[] expected = IntStream.concat(IntStream.of(preloaded), IntStream.of(values)).sorted().toArray();
+        assertArrayEquals(expected, Sorting.sorted(Sorting.concatenate(runs)));
+    }
+
+    @Test
+    void writerFailureReachesTheCaller() {
+        RunSink failing = new RunSink() {
+            @Override
+            public RunWriter beginRun() throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void endRun(long length) {
+            }
+        };
+        IOException e = assertTimeoutPreemptively(NO_HANG, () -> assertThrows(IOException.class,
+                () -> new PipelinedRunGenerator(new int[MEMORY], 0).generate(endless(), failing)));
+        assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    void uncheckedWriterFailureIsWrapped() {
+        RunSink failing = new RunSink() {
+            @Override
+            public RunWriter beginRun() {
+                return new ConsumerRunWriter(value -> {
+                    throw new IllegalStateException("broken tape");
+                });
+            }
+
+            @Override
+            public void endRun(long length) {
+            }
+        };
+        IOException e = assertTimeoutPreemptively(NO_HANG, () -> assertThrows(IOException.class,
+                () -> new PipelinedRunGenerator(new int[MEMORY], 0).generate(endless(), failing)));
+        assertEquals("broken tape", e.getCause().getMessage());
+    }
+
+    @Test
+    void readerFailureStopsTheStages() {
+        RunReader failing = new IteratorRunReader(IntStream.range(0, 5 * MEMORY).map(i -> {
+            if (i == 4 * MEMORY) {
+                throw new IllegalStateException("bad input");
+            }
+            return i;
+        }).iterator());
+        assertTimeoutPreemptively(NO_HANG, () -> assertThrows(IllegalStateException.class,
+                () -> Sorting.runs(new PipelinedRunGenerator(new int[MEMORY], 0), failing)));
+    }
+
+    // never runs out, the generator can only stop through a failing stage
+    private static RunReader endless() {
+        return new IteratorRunReader(IntStream.iterate(0, i -> i + 1).iterator());
+    }
+}
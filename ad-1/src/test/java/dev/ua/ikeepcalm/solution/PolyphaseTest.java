@@ -0,0 +1,149 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolyphaseTest {
+    // 1 KB of memory holds 256 ints, so every test input below spills into many runs
+    private static final int MEMORY = 1024;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void sortMatchesArraysSort() throws IOException {
+        int[] values = new Random(1).ints(50_000).toArray();
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values));
+
+        SortStats stats = sorter.getLastStats();
+        assertEquals(values.length, stats.records());
+        assertTrue(stats.runs() > 1);
+        assertTrue(stats.mergePasses() > 1);
+    }
+
+    @Test
+    void sortKeepsDuplicatesAndExtremes() throws IOException {
+        Random random = new Random(2);
+        int[] values = new int[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (random.nextInt(4)) {
+                case 0 -> Integer.MIN_VALUE;
+                case 1 -> Integer.MAX_VALUE;
+                default -> random.nextInt(10);
+            };
+        }
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.TEXT), MEMORY, RunFormat.TEXT);
+        assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values));
+    }
+
+    @Test
+    void runCountsOffThePerfectDistributionNeedDummyRuns() throws IOException {
+        // 256 values per run, run counts around the Fibonacci numbers 13 and 21
+        for (int runs : new int[]{12, 13, 14, 20, 21, 22}) {
+            int[] values = new Random(runs).ints(runs * 256L).toArray();
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values), runs + " runs");
+            assertEquals(runs, sorter.getLastStats().runs());
+        }
+    }
+
+    @Test
+    void emptyAndInMemoryInputsSkipTheTapes() throws IOException {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        assertArrayEquals(new int[0], Sorting.sort(sorter, new int[0]));
+
+        int[] values = new Random(3).ints(200).toArray();
+        assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values));
+        assertEquals(1, sorter.getLastStats().runs());
+        assertEquals(0, sorter.getLastStats().mergePasses());
+    }
+
+    @Test
+    void sortWorksForEveryTapeCount() throws IOException {
+        int[] values = new Random(4).ints(30_000).toArray();
+        int[] expected = Sorting.sorted(values);
+        for (int tapes : new int[]{3, 4, 5, 6, 9, 17, 33}) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", tapes, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            assertArrayEquals(expected, Sorting.sort(sorter, values), tapes + " tapes");
+        }
+    }
+
+    @Test
+    void moreTapesNeedFewerMergePasses() throws IOException {
+        int[] values = new Random(5).ints(60_000).toArray();
+        Polyphase narrow = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        Polyphase wide = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 9, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        Sorting.sort(narrow, values);
+        Sorting.sort(wide, values);
+        assertTrue(wide.getLastStats().mergePasses() < narrow.getLastStats().mergePasses());
+    }
+
+    @Test
+    void tooFewTapesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Polyphase(null, List.of("a", "b"), MEMORY, RunFormat.INT32));
+    }
+
+    @Test
+    void tapeCountStaysWithinBounds() {
+        assertEquals(Polyphase.MIN_TAPES, Polyphase.chooseTapeCount(0));
+        int tapes = Polyphase.chooseTapeCount(Integer.MAX_VALUE);
+        assertTrue(tapes >= Polyphase.MIN_TAPES && tapes <= Polyphase.MAX_TAPES);
+    }
+
+    @Test
+    void sortWorksForEveryRunGeneration() throws IOException {
+        int[] values = new Random(6).ints(40_000).toArray();
+        for (RunGeneration generation : RunGeneration.values()) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 4, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            sorter.setRunGeneration(generation);
+            assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values), generation.name());
+        }
+    }
+
+    @Test
+    void parallelGroupsMergeIntoOneSortedOutput() throws IOException {
+        int[] values = new Random(7).ints(60_000).toArray();
+        for (int parallelism : new int[]{2, 3, 4}) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY * parallelism, RunFormat.INT32);
+            sorter.setParallelism(parallelism);
+            assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values), parallelism + " groups");
+        }
+        // every group deletes its tapes once the final merge is written
+        assertArrayEquals(new String[0], directory.list());
+    }
+
+    @Test
+    void parallelismMustBePositive() {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        assertThrows(IllegalArgumentException.class, () -> sorter.setParallelism(0));
+    }
+
+    @Test
+    void sortWorksForEveryIoBackend() throws IOException {
+        int[] values = new Random(8).ints(40_000).toArray();
+        for (IoBackend backend : IoBackend.values()) {
+            for (RunFormat format : new RunFormat[]{RunFormat.TEXT, RunFormat.INT32}) {
+                if (backend == IoBackend.DIRECT && !format.isFixedWidth()) {
+                    continue;
+                }
+                Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 4, format), MEMORY, format);
+                sorter.setIoBackend(backend);
+                assertArrayEquals(Sorting.sorted(values), Sorting.sort(sorter, values), backend + " " + format);
+            }
+        }
+    }
+}
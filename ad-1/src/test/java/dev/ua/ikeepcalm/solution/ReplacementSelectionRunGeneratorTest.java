@@ -0,0 +1,70 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplacementSelectionRunGeneratorTest {
+    private static final int HEAP = 1_000;
+
+    @Test
+    void runsAreSortedAndKeepEveryRecord() throws IOException {
+        int[] values = new Random(1).ints(50_000, -500, 500).toArray();
+        List<int[]> runs = Sorting.runs(new ReplacementSelectionRunGenerator(new int[HEAP], 0), values);
+        for (int[] run : runs) {
+            assertTrue(Sorting.isSorted(run));
+        }
+        assertArrayEquals(Sorting.sorted(values), Sorting.sorted(Sorting.concatenate(runs)));
+    }
+
+    @Test
+    void randomInputGivesRunsAboutTwiceTheHeap() throws IOException {
+        int[] values = new Random(2).ints(200_000).toArray();
+        List<int[]> runs = Sorting.runs(new ReplacementSelectionRunGenerator(new int[HEAP], 0), values);
+        // the last two runs drain the heap and are shorter, the rest average 2 * HEAP
+        double average = runs.subList(0, runs.size() - 2).stream().mapToInt(run -> run.length).average().orElseThrow();
+        assertTrue(average > 1.8 * HEAP && average < 2.2 * HEAP, "average run length " + average);
+    }
+
+    @Test
+    void sortedInputBecomesOneRun() throws IOException {
+        int[] values = IntStream.range(0, 20 * HEAP).toArray();
+        List<int[]> runs = Sorting.runs(new ReplacementSelectionRunGenerator(new int[HEAP], 0), values);
+        assertEquals(1, runs.size());
+        assertArrayEquals(values, runs.get(0));
+    }
+
+    @Test
+    void reversedInputGivesRunsOfTheHeapSize() throws IOException {
+        int[] values = IntStream.range(0, 10 * HEAP).map(i -> -i).toArray();
+        List<int[]> runs = Sorting.runs(new ReplacementSelectionRunGenerator(new int[HEAP], 0), values);
+        assertEquals(10, runs.size());
+        for (int[] run : runs) {
+            assertEquals(HEAP, run.length);
+        }
+    }
+
+    @Test
+    void preloadedRecordsJoinTheFirstRun() throws IOException {
+        int[] heap = new int[HEAP];
+        heap[0] = 7;
+        heap[1] = -3;
+        int[] values = new Random(3).ints(5 * HEAP).toArray();
+        List<int[]> runs = Sorting.runs(new ReplacementSelectionRunGenerator(heap, 2), values);
+
+        int[] expected = IntStream.concat(IntStream.of(7, -3), IntStream.of(values)).sorted().toArray();
+        assertArrayEquals(expected, Sorting.sorted(Sorting.concatenate(runs)));
+    }
+
+    @Test
+    void emptyInputWritesNoRuns() throws IOException {
+        assertEquals(0, Sorting.runs(new ReplacementSelectionRunGenerator(new int[HEAP], 0), new int[0]).size());
+    }
+}
@@ -0,0 +1,172 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IoBackend;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import dev.ua.ikeepcalm.solution.io.RunStorage;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortMetricsTest {
+    private static final int MEMORY = 1024;
+    private static final int RUN_LENGTH = 100;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void listenerSeesEveryEventInOrder() throws IOException {
+        int[] values = new Random(1).ints(20_000).toArray();
+        Recorder recorder = new Recorder();
+        Polyphase sorter = sorter(recorder);
+        Sorting.sort(sorter, values);
+        SortStats stats = sorter.getLastStats();
+
+        List<String> expected = new ArrayList<>();
+        expected.add("start RUN_GENERATION");
+        for (int i = 0; i < stats.runs(); i++) {
+            expected.add("run");
+        }
+        expected.add("end RUN_GENERATION");
+        expected.add("start MERGE");
+        for (int pass = 1; pass <= stats.mergePasses(); pass++) {
+            expected.add("pass " + pass);
+        }
+        expected.add("end MERGE");
+        expected.add("done");
+        assertEquals(expected, recorder.events);
+
+        assertEquals(values.length, recorder.records);
+        assertSame(stats, recorder.stats);
+        assertEquals(stats.runGenerationNanos(), recorder.phaseNanos[SortPhase.RUN_GENERATION.ordinal()]);
+        assertEquals(stats.mergeNanos(), recorder.phaseNanos[SortPhase.MERGE.ordinal()]);
+    }
+
+    @Test
+    void everyTapeWriteIsCountedOnce() throws IOException {
+        int[] values = new Random(2).ints(20_000).toArray();
+        Recorder recorder = new Recorder();
+        Polyphase sorter = sorter(recorder);
+        Sorting.sort(sorter, values);
+        SortStats stats = sorter.getLastStats();
+
+        // distribution writes every record once, then each intermediate pass writes its output tape
+        assertTrue(recorder.passBytes > 0);
+        assertEquals((long) values.length * Integer.BYTES + recorder.passBytes, stats.bytesWritten());
+    }
+
+    @Test
+    void resumedMergeCountsOnlyItsOwnWrites() throws IOException {
+        int[] values = new Random(3).ints(30 * RUN_LENGTH).toArray();
+        List<String> files = Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32);
+        TapeGroup interrupted = group(files, new SortMetrics(null));
+        interrupted.startDistribution();
+        for (int from = 0; from < values.length; from += RUN_LENGTH) {
+            RunWriter writer = interrupted.beginRun();
+            for (int value : Sorting.sorted(Arrays.copyOfRange(values, from, from + RUN_LENGTH))) {
+                writer.write(value);
+            }
+            interrupted.endRun(RUN_LENGTH);
+        }
+        interrupted.finishDistribution();
+        interrupted.close();
+
+        // the distributed tapes were written by the interrupted process and must not count again
+        Recorder recorder = new Recorder();
+        SortMetrics metrics = new SortMetrics(recorder);
+        TapeGroup resumed = group(files, metrics);
+        assertTrue(resumed.restore());
+        try (RunWriter writer = new ConsumerRunWriter(value -> {
+        })) {
+            resumed.merge(writer);
+        }
+        resumed.delete();
+        assertEquals(recorder.passBytes, metrics.finish().bytesWritten());
+    }
+
+    @Test
+    void throughputFollowsRecordsAndTime() {
+        SortStats stats = new SortStats(1_000_000, 3_000_000, 5_000_000, 10_000, 0, 0, 4, 2, 64_000_000);
+        assertEquals(2_000_000, stats.recordsPerSecond(), 1e-6);
+        assertEquals(0, new SortStats(0, 0, 0, 10, 0, 0, 1, 0, 0).recordsPerSecond());
+        assertTrue(stats.toString().contains("throughput=2000000 records/s"), stats.toString());
+        assertTrue(stats.toString().contains("sampledPeakHeap=64.0MB"), stats.toString());
+    }
+
+    @Test
+    void sortReportsItsOwnNumbers() throws IOException {
+        int[] values = new Random(4).ints(20_000).toArray();
+        Polyphase sorter = sorter(null);
+        Sorting.sort(sorter, values);
+        SortStats stats = sorter.getLastStats();
+
+        assertEquals(values.length, stats.records());
+        assertTrue(stats.runGenerationNanos() + stats.mergeNanos() <= stats.totalNanos());
+        assertEquals(stats.records() * 1e9 / stats.totalNanos(), stats.recordsPerSecond(), 1e-6);
+        assertTrue(stats.sampledPeakHeapBytes() > 0);
+    }
+
+    private Polyphase sorter(SortListener listener) {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        sorter.setSortListener(listener);
+        return sorter;
+    }
+
+    private TapeGroup group(List<String> files, SortMetrics metrics) {
+        TapeGroup group = new TapeGroup(files, new RunStorage(RunFormat.INT32, IoBackend.STREAM), metrics, MergeMode.SORT);
+        Properties identity = new Properties();
+        identity.setProperty("input", "a");
+        group.enableCheckpoint(new Checkpoint(new File(files.get(0) + ".manifest"), identity));
+        return group;
+    }
+
+    private static class Recorder implements SortListener {
+        final List<String> events = new ArrayList<>();
+        final long[] phaseNanos = new long[SortPhase.values().length];
+        long records;
+        long passBytes;
+        SortStats stats;
+
+        @Override
+        public void phaseStarted(SortPhase phase) {
+            events.add("start " + phase);
+        }
+
+        @Override
+        public void runGenerated(long records) {
+            events.add("run");
+            this.records += records;
+        }
+
+        @Override
+        public void mergePassCompleted(int pass, int runs, long bytesWritten, long elapsedNanos) {
+            events.add("pass " + pass);
+            passBytes += bytesWritten;
+        }
+
+        @Override
+        public void phaseCompleted(SortPhase phase, long elapsedNanos) {
+            events.add("end " + phase);
+            phaseNanos[phase.ordinal()] += elapsedNanos;
+        }
+
+        @Override
+        public void sortCompleted(SortStats stats) {
+            events.add("done");
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunReader;
+import dev.ua.ikeepcalm.solution.io.RunWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+final class Sorting {
+
+    private Sorting() {
+    }
+
+    static int[] sort(Polyphase sorter, int[] values) throws IOException {
+        IntStream.Builder sorted = IntStream.builder();
+        sorter.sort(new IteratorRunReader(Arrays.stream(values).iterator()), () -> new ConsumerRunWriter(sorted::add));
+        return sorted.build().toArray();
+    }
+
+    static List<int[]> runs(RunGenerator generator, int[] values) throws IOException {
+        return runs(generator, new IteratorRunReader(Arrays.stream(values).iterator()));
+    }
+
+    static List<int[]> runs(RunGenerator generator, RunReader input) throws IOException {
+        List<int[]> runs = new ArrayList<>();
+        generator.generate(input, new RunSink() {
+            private IntStream.Builder run;
+
+            @Override
+            public RunWriter beginRun() {
+                run = IntStream.builder();
+                return new ConsumerRunWriter(run::add);
+            }
+
+            @Override
+            public void endRun(long length) {
+                int[] values = run.build().toArray();
+                if (values.length != length) {
+                    throw new AssertionError("Run reported " + length + " records but wrote " + values.length);
+                }
+                runs.add(values);
+            }
+        });
+        return runs;
+    }
+
+    static int[] concatenate(List<int[]> runs) {
+        return runs.stream().flatMapToInt(Arrays::stream).toArray();
+    }
+
+    static boolean isSorted(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,116 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingSortTest {
+    private static final int MEMORY = 64 * 1024;
+    // four times what fits into MEMORY, so these inputs always spill
+    private static final int SPILLING = 4 * MEMORY / Integer.BYTES;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void iteratorInputBelowTheBudgetNeverTouchesDisk() throws IOException {
+        int[] values = new Random(1).ints(MEMORY / Integer.BYTES / 2).toArray();
+        Recorder recorder = new Recorder();
+        sorter().sort(Arrays.stream(values).iterator(), recorder);
+        assertArrayEquals(Sorting.sorted(values), recorder.values());
+        assertEquals(0, recorder.filesWhileWriting);
+    }
+
+    @Test
+    void intStreamInputBelowTheBudgetNeverTouchesDisk() throws IOException {
+        int[] values = new Random(2).ints(1_000).toArray();
+        Recorder recorder = new Recorder();
+        sorter().sort(IntStream.of(values), recorder);
+        assertArrayEquals(Sorting.sorted(values), recorder.values());
+        assertEquals(0, recorder.filesWhileWriting);
+    }
+
+    @Test
+    void textInputBelowTheBudgetNeverTouchesDisk() throws IOException {
+        int[] values = new Random(3).ints(1_000).toArray();
+        String text = Arrays.stream(values).mapToObj(Integer::toString).collect(Collectors.joining("\n", "", "\n"));
+        Recorder recorder = new Recorder();
+        sorter().sort(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), recorder);
+        assertArrayEquals(Sorting.sorted(values), recorder.values());
+        assertEquals(0, recorder.filesWhileWriting);
+    }
+
+    @Test
+    void emptyInputWritesNothing() throws IOException {
+        Recorder recorder = new Recorder();
+        sorter().sort(IntStream.empty(), recorder);
+        assertArrayEquals(new int[0], recorder.values());
+        assertArrayEquals(new String[0], directory.list());
+    }
+
+    @Test
+    void largerInputsSpillAndCleanUp() throws IOException {
+        int[] values = new Random(4).ints(SPILLING).toArray();
+        for (RunFormat format : new RunFormat[]{RunFormat.INT32, RunFormat.DELTA_VARINT}) {
+            for (RunGeneration generation : RunGeneration.values()) {
+                StreamingSort sorter = sorter();
+                sorter.setRunFormat(format);
+                sorter.setRunGeneration(generation);
+                Recorder recorder = new Recorder();
+                sorter.sort(IntStream.of(values), recorder);
+
+                String where = format + " " + generation;
+                assertArrayEquals(Sorting.sorted(values), recorder.values(), where);
+                assertTrue(recorder.filesWhileWriting > 0, where);
+                assertArrayEquals(new String[0], directory.list(), where);
+            }
+        }
+    }
+
+    @Test
+    void inputJustAboveTheBudgetKeepsTheProbedRecords() throws IOException {
+        int[] values = new Random(5).ints(MEMORY / Integer.BYTES + 1).toArray();
+        Recorder recorder = new Recorder();
+        sorter().sort(IntStream.of(values), recorder);
+        assertArrayEquals(Sorting.sorted(values), recorder.values());
+        assertTrue(recorder.filesWhileWriting > 0);
+    }
+
+    private StreamingSort sorter() {
+        StreamingSort sorter = new StreamingSort(MEMORY);
+        sorter.setWorkingDirectory(directory);
+        return sorter;
+    }
+
+    // notes how many tape files exist when the first sorted value arrives
+    private class Recorder implements IntConsumer {
+        private final IntStream.Builder values = IntStream.builder();
+        private int filesWhileWriting = -1;
+
+        @Override
+        public void accept(int value) {
+            if (filesWhileWriting < 0) {
+                filesWhileWriting = directory.list().length;
+            }
+            values.add(value);
+        }
+
+        int[] values() {
+            return values.build().toArray();
+        }
+    }
+}
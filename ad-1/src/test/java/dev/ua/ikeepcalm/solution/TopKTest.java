@@ -0,0 +1,81 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.io.ConsumerRunWriter;
+import dev.ua.ikeepcalm.solution.io.IteratorRunReader;
+import dev.ua.ikeepcalm.solution.io.RunFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopKTest {
+    // 256 ints, so k up to 256 uses the in-memory heap and anything larger runs through the tapes
+    private static final int MEMORY = 1024;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void heapKeepsTheSmallestValuesInOrder() throws IOException {
+        int[] values = new Random(1).ints(10_000, -50, 50).toArray();
+        for (int k : new int[]{1, 7, 100, 10_000, 20_000}) {
+            IntStream.Builder smallest = IntStream.builder();
+            TopK.writeSmallest(new IteratorRunReader(Arrays.stream(values).iterator()), k, new ConsumerRunWriter(smallest::add));
+            assertArrayEquals(smallestOf(values, k), smallest.build().toArray(), "k = " + k);
+        }
+    }
+
+    @Test
+    void smallestSelectionMatchesAFullSort() throws IOException {
+        int[] values = new Random(2).ints(40_000).toArray();
+        for (long k : new long[]{1, 256, 257, 1_000, 39_999, 40_000, 50_000}) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 4, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            sorter.setTopK(k, false);
+            assertArrayEquals(smallestOf(values, k), Sorting.sort(sorter, values), "k = " + k);
+        }
+    }
+
+    @Test
+    void largestSelectionComesOutDescending() throws IOException {
+        int[] values = IntStream.concat(IntStream.of(Integer.MIN_VALUE, Integer.MAX_VALUE), new Random(3).ints(30_000)).toArray();
+        for (long k : new long[]{10, 2_000}) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 4, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            sorter.setTopK(k, true);
+            int[] sorted = Sorting.sorted(values);
+            int[] expected = IntStream.range(0, (int) k).map(i -> sorted[sorted.length - 1 - i]).toArray();
+            assertArrayEquals(expected, Sorting.sort(sorter, values), "k = " + k);
+        }
+    }
+
+    @Test
+    void selectionWorksWithEveryRunGeneration() throws IOException {
+        int[] values = new Random(4).ints(40_000).toArray();
+        for (RunGeneration generation : RunGeneration.values()) {
+            Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+            sorter.setRunGeneration(generation);
+            sorter.setTopK(3_000, false);
+            assertArrayEquals(smallestOf(values, 3_000), Sorting.sort(sorter, values), generation.name());
+        }
+    }
+
+    @Test
+    void selectionOnlyCombinesWithTheSortMode() {
+        Polyphase sorter = new Polyphase(null, Polyphase.auxiliaryFiles(directory, "tape", 3, RunFormat.INT32), MEMORY, RunFormat.INT32);
+        sorter.setTopK(5, false);
+        sorter.setMergeMode(MergeMode.DISTINCT);
+        assertThrows(IllegalStateException.class, () -> Sorting.sort(sorter, new int[]{1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> sorter.setTopK(-1, false));
+    }
+
+    private static int[] smallestOf(int[] values, long k) {
+        int[] sorted = Sorting.sorted(values);
+        return Arrays.copyOf(sorted, (int) Math.min(k, sorted.length));
+    }
+}
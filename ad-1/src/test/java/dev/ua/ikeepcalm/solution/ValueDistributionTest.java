@@ -0,0 +1,95 @@
+package dev.ua.ikeepcalm.solution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueDistributionTest {
+
+    private static final int BOUND = 1000;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void everyDistributionStaysWithinTheBound() {
+        for (ValueDistribution distribution : ValueDistribution.values()) {
+            int[] values = sample(distribution, 1);
+            for (int value : values) {
+                assertTrue(value >= 0 && value < BOUND, distribution + " gave " + value);
+            }
+        }
+    }
+
+    @Test
+    void uniformCoversTheRangeEvenly() {
+        int[] counts = histogram(sample(ValueDistribution.UNIFORM, 2), 10);
+        // each tenth of the range should get close to a tenth of the samples
+        for (int count : counts) {
+            assertEquals(SAMPLES / 10.0, count, SAMPLES / 100.0);
+        }
+    }
+
+    @Test
+    void sortedFollowsProgressAndReversedMirrorsIt() {
+        int[] sorted = sample(ValueDistribution.SORTED, 3);
+        int[] reversed = sample(ValueDistribution.REVERSE_SORTED, 3);
+        assertEquals(0, sorted[0]);
+        assertEquals(BOUND - 1, sorted[SAMPLES - 1]);
+        for (int i = 0; i < SAMPLES; i++) {
+            if (i > 0) {
+                assertTrue(sorted[i - 1] <= sorted[i], "sorted breaks at " + i);
+            }
+            assertEquals(BOUND - 1 - sorted[i], reversed[i]);
+        }
+    }
+
+    @Test
+    void zipfFavoursSmallValues() {
+        int[] counts = histogram(sample(ValueDistribution.ZIPF, 4), BOUND);
+        // rank one has probability 1 / H(1000), about 0.134, and rank k about a k-th of that
+        double harmonic = 0;
+        for (int k = 1; k <= BOUND; k++) {
+            harmonic += 1.0 / k;
+        }
+        assertEquals(SAMPLES / harmonic, counts[0], SAMPLES / 100.0);
+        assertEquals(SAMPLES / harmonic / 2, counts[1], SAMPLES / 100.0);
+        assertTrue(counts[0] > counts[9] * 5, counts[0] + " vs " + counts[9]);
+
+        int upperHalf = 0;
+        for (int value = BOUND / 2; value < BOUND; value++) {
+            upperHalf += counts[value];
+        }
+        assertTrue(upperHalf < SAMPLES / 10, "upper half got " + upperHalf);
+    }
+
+    @Test
+    void duplicatesUseAHundredDistinctValues() {
+        int[] counts = histogram(sample(ValueDistribution.DUPLICATES, 5), BOUND);
+        int distinct = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+        assertEquals(100, distinct);
+    }
+
+    private static int[] sample(ValueDistribution distribution, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] values = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = distribution.next(random, (double) i / SAMPLES, BOUND);
+        }
+        return values;
+    }
+
+    private static int[] histogram(int[] values, int buckets) {
+        int[] counts = new int[buckets];
+        for (int value : values) {
+            counts[(int) ((long) value * buckets / BOUND)]++;
+        }
+        return counts;
+    }
+}
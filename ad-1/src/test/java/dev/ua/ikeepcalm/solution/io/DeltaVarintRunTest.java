@@ -0,0 +1,88 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaVarintRunTest {
+    // smaller than the value count, so reads and writes refill across buffer boundaries
+    private static final int BUFFER = 64;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void sortedRunsShrinkToAboutOneBytePerRecord() throws IOException {
+        int[] values = new Random(1).ints(100_000, 0, 1_000_000).sorted().toArray();
+        File file = new File(directory, "sorted.dvi");
+        write(file, values);
+        assertTrue(file.length() < values.length * 1.5, file.length() + " bytes");
+        assertReads(file, values);
+    }
+
+    @Test
+    void deltasThatOverflowIntRoundTrip() throws IOException {
+        int[] values = IntStream.range(0, 1_000)
+                .map(i -> i % 2 == 0 ? Integer.MIN_VALUE + i : Integer.MAX_VALUE - i)
+                .toArray();
+        File file = new File(directory, "extremes.dvi");
+        // MAX - MIN wraps around to a small delta, the reader has to wrap back the same way
+        write(file, values);
+        assertReads(file, values);
+    }
+
+    @Test
+    void consecutiveRunsInOneFileKeepTheirDeltas() throws IOException {
+        int[] first = {-5, 0, 10, 1_000};
+        int[] second = {-70_000, -3, 3};
+        File file = new File(directory, "runs.dvi");
+        write(file, IntStream.concat(IntStream.of(first), IntStream.of(second)).toArray());
+        try (RunReader reader = new DeltaVarintRunReader(file, BUFFER)) {
+            reader.skip(first.length);
+            for (int value : second) {
+                assertEquals(value, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void truncatedVarintIsReported() throws IOException {
+        File file = new File(directory, "truncated.dvi");
+        write(file, new int[]{Integer.MAX_VALUE});
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        try (RunReader reader = new DeltaVarintRunReader(file, BUFFER)) {
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    private static void write(File file, int[] values) throws IOException {
+        try (RunWriter writer = new DeltaVarintRunWriter(file, BUFFER)) {
+            for (int value : values) {
+                writer.write(value);
+            }
+        }
+    }
+
+    private static void assertReads(File file, int[] values) throws IOException {
+        try (RunReader reader = new DeltaVarintRunReader(file, BUFFER)) {
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], reader.next(), "record " + i);
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+}
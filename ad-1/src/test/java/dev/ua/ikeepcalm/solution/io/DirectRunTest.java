@@ -0,0 +1,119 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DirectRunTest {
+    private static final int BUFFER = 8 * 1024;
+
+    @TempDir
+    File directory;
+
+    private int blockSize;
+
+    // O_DIRECT depends on the file system, tmpfs for one refuses it
+    @BeforeEach
+    void requireDirectIo() throws IOException {
+        blockSize = DirectBlocks.blockSize(new File(directory, "probe.bin"));
+        try {
+            new DirectRunWriter(new File(directory, "probe.bin"), Integer.BYTES, BUFFER).close();
+        } catch (IOException | UnsupportedOperationException e) {
+            assumeTrue(false, "direct I/O is not available here: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void partialLastBlockIsCutBackToTheRecords() throws IOException {
+        for (int recordSize : new int[]{Integer.BYTES, Long.BYTES}) {
+            int perBlock = blockSize / recordSize;
+            for (int records : new int[]{1, perBlock - 1, perBlock, perBlock + 1, 5 * BUFFER / recordSize + 3}) {
+                File file = new File(directory, "run" + recordSize + "-" + records + ".bin");
+                int[] values = new Random(records).ints(records).toArray();
+                try (DirectRunWriter writer = new DirectRunWriter(file, recordSize, BUFFER)) {
+                    for (int value : values) {
+                        writer.write(value);
+                    }
+                }
+                assertEquals((long) records * recordSize, file.length(), recordSize + " x " + records);
+                try (DirectRunReader reader = new DirectRunReader(file, recordSize, BUFFER)) {
+                    for (int value : values) {
+                        assertEquals(value, reader.next());
+                    }
+                    assertFalse(reader.hasNext());
+                    assertThrows(EOFException.class, reader::next);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyRunLeavesAnEmptyFile() throws IOException {
+        File file = new File(directory, "empty.bin");
+        new DirectRunWriter(file, Integer.BYTES, BUFFER).close();
+        assertEquals(0, file.length());
+        try (DirectRunReader reader = new DirectRunReader(file, Integer.BYTES, BUFFER)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void skipLandsOnUnalignedRecordsAcrossBuffers() throws IOException {
+        int records = 4 * BUFFER / Integer.BYTES + 7;
+        File file = write(records);
+        try (DirectRunReader reader = new DirectRunReader(file, Integer.BYTES, BUFFER)) {
+            assertEquals(0, reader.next());
+            reader.skip(BUFFER / Integer.BYTES + 3);
+            assertEquals(BUFFER / Integer.BYTES + 4, reader.next());
+            reader.skip(records - BUFFER / Integer.BYTES - 6);
+            assertEquals(records - 1, reader.next());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void skipPastTheEndFails() throws IOException {
+        File file = write(100);
+        try (DirectRunReader reader = new DirectRunReader(file, Integer.BYTES, BUFFER)) {
+            reader.skip(100);
+            assertFalse(reader.hasNext());
+            assertThrows(EOFException.class, () -> reader.skip(1));
+        }
+    }
+
+    @Test
+    void bufferSmallerThanABlockStillWorks() throws IOException {
+        File file = new File(directory, "small.bin");
+        try (DirectRunWriter writer = new DirectRunWriter(file, Integer.BYTES, 100)) {
+            for (int i = 0; i < 3 * blockSize; i++) {
+                writer.write(i);
+            }
+        }
+        try (DirectRunReader reader = new DirectRunReader(file, Integer.BYTES, 100)) {
+            for (int i = 0; i < 3 * blockSize; i++) {
+                assertEquals(i, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    private File write(int records) throws IOException {
+        File file = new File(directory, "sequence.bin");
+        try (DirectRunWriter writer = new DirectRunWriter(file, Integer.BYTES, BUFFER)) {
+            for (int i = 0; i < records; i++) {
+                writer.write(i);
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,158 @@
+package dev.ua.ikeepcalm.solution.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RunStorageTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void everyBackendRoundTripsEveryFormat() throws IOException {
+        int[] values = IntStream.concat(IntStream.of(Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE),
+                new Random(1).ints(10_000)).toArray();
+        for (IoBackend backend : IoBackend.values()) {
+            for (RunFormat format : formats(backend)) {
+                RunStorage storage = new RunStorage(format, backend);
+                File file = new File(directory, backend + format.getExtension());
+                write(storage.openWriter(file), values);
+                assertArrayEquals(values, read(storage.openReader(file), values.length), backend + " " + format);
+            }
+        }
+    }
+
+    @Test
+    void skipResumesInTheMiddleOfARun() throws IOException {
+        int[] values = IntStream.range(0, 5_000).toArray();
+        for (IoBackend backend : IoBackend.values()) {
+            for (RunFormat format : formats(backend)) {
+                RunStorage storage = new RunStorage(format, backend);
+                File file = new File(directory, "skip" + backend + format.getExtension());
+                write(storage.openWriter(file), values);
+                try (RunReader reader = storage.openReader(file)) {
+                    reader.skip(1_234);
+                    assertEquals(1_234, reader.next(), backend + " " + format);
+                    reader.skip(3_000);
+                    assertEquals(4_235, reader.next(), backend + " " + format);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mappedRunsCrossWindowBoundaries() throws IOException {
+        int records = MappedWindow.WINDOW_SIZE / Integer.BYTES + 1_000;
+        RunStorage storage = new RunStorage(RunFormat.INT32, IoBackend.MAPPED);
+        File file = new File(directory, "large.bin");
+        try (RunWriter writer = storage.openWriter(file)) {
+            for (int i = 0; i < records; i++) {
+                writer.write(i);
+            }
+        }
+        assertEquals((long) records * Integer.BYTES, file.length());
+        try (RunReader reader = storage.openReader(file)) {
+            for (int i = 0; i < records; i++) {
+                assertEquals(i, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void mappedTextReaderRejectsValuesOutsideIntRange() throws IOException {
+        File file = new File(directory, "overflow.txt");
+        Files.writeString(file.toPath(), "1\n2147483648\n");
+        try (RunReader reader = new MappedTextRunReader(file)) {
+            assertEquals(1, reader.next());
+            assertThrows(NumberFormatException.class, reader::next);
+        }
+    }
+
+    @Test
+    void textBackendsAgreeOnLineEndingsAndSigns() throws IOException {
+        File file = new File(directory, "lines.txt");
+        Files.writeString(file.toPath(), "+5\r\n-0\n-2147483648\r\n2147483647");
+        for (IoBackend backend : IoBackend.values()) {
+            RunStorage storage = new RunStorage(RunFormat.INT32, backend);
+            assertArrayEquals(new int[]{5, 0, Integer.MIN_VALUE, Integer.MAX_VALUE}, read(storage.openTextReader(file), 4), backend.name());
+        }
+    }
+
+    @Test
+    void textBackendsBothRejectBlankLines() throws IOException {
+        File file = new File(directory, "blank.txt");
+        Files.writeString(file.toPath(), "1\n\n2\n");
+        for (IoBackend backend : IoBackend.values()) {
+            try (RunReader reader = new RunStorage(RunFormat.INT32, backend).openTextReader(file)) {
+                assertEquals(1, reader.next());
+                assertThrows(NumberFormatException.class, reader::next, backend.name());
+            }
+        }
+    }
+
+    @Test
+    void mergeBuffersAreClampedAndAligned() {
+        RunStorage storage = new RunStorage(RunFormat.INT32, IoBackend.STREAM);
+        storage.sizeBuffers(1024, 2);
+        assertEquals(RunStorage.MIN_BUFFER_SIZE, storage.getReadBufferSize());
+
+        storage.sizeBuffers(Long.MAX_VALUE / 2, 2);
+        assertEquals(RunStorage.MAX_BUFFER_SIZE, storage.getReadBufferSize());
+
+        storage.sizeBuffers(1_000_000, 3);
+        assertEquals(0, storage.getReadBufferSize() % RunStorage.MIN_BUFFER_SIZE);
+        assertEquals(0, storage.getWriteBufferSize() % RunStorage.MIN_BUFFER_SIZE);
+    }
+
+    @Test
+    void directRejectsVariableWidthFormats() {
+        for (RunFormat format : new RunFormat[]{RunFormat.TEXT, RunFormat.DELTA_VARINT}) {
+            assertThrows(IllegalArgumentException.class, () -> new RunStorage(format, IoBackend.DIRECT), format.name());
+        }
+    }
+
+    @Test
+    void directOptionIsFoundWithoutACompileTimeReference() {
+        assertEquals("DIRECT", DirectBlocks.direct().toString());
+    }
+
+    // direct I/O only takes the fixed-width formats
+    private static List<RunFormat> formats(IoBackend backend) {
+        return Arrays.stream(RunFormat.values())
+                .filter(format -> backend != IoBackend.DIRECT || format.isFixedWidth())
+                .toList();
+    }
+
+    private static void write(RunWriter writer, int[] values) throws IOException {
+        try (writer) {
+            for (int value : values) {
+                writer.write(value);
+            }
+        }
+    }
+
+    private static int[] read(RunReader reader, int expected) throws IOException {
+        int[] values = new int[expected];
+        try (reader) {
+            for (int i = 0; i < expected; i++) {
+                values[i] = reader.next();
+            }
+            assertFalse(reader.hasNext());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvCodecTest {
+    private final CsvCodec codec = new CsvCodec(',');
+
+    @Test
+    void splitsPlainFieldsAndKeepsEmptyOnes() {
+        assertArrayEquals(new String[]{"a", "", "c", ""}, decode("a,,c,"));
+        assertArrayEquals(new String[]{"x", "y"}, new CsvCodec(';').decode(bytes("x;y"), 0, 3));
+    }
+
+    @Test
+    void quotedFieldsHoldDelimitersQuotesAndLineBreaks() {
+        assertArrayEquals(new String[]{"1", "a,b", "say \"hi\"", ""}, decode("1,\"a,b\",\"say \"\"hi\"\"\",\"\""));
+        assertArrayEquals(new String[]{"first\nsecond", "x"}, decode("\"first\nsecond\",x"));
+    }
+
+    @Test
+    void malformedQuotingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> decode("\"open,x"));
+        assertThrows(IllegalArgumentException.class, () -> decode("\"closed\"x,y"));
+        assertThrows(IllegalArgumentException.class, () -> decode("a\"b,c"));
+    }
+
+    @Test
+    void recordIsCompleteOnceEveryQuotedFieldIsClosed() {
+        assertTrue(complete("a,b,c"));
+        assertTrue(complete("\"a,b\",c"));
+        assertTrue(complete("\"say \"\"hi\"\"\""));
+        assertFalse(complete("1,\"first"));
+        assertFalse(complete("1,\"ends with an escaped quote\"\""));
+        assertTrue(complete("1,\"first\nsecond\""));
+        // a stray quote in an unquoted field is left for decode to reject instead of swallowing the next lines
+        assertTrue(complete("a\"b,c"));
+    }
+
+    @Test
+    void unusableDelimitersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvCodec('"'));
+        assertThrows(IllegalArgumentException.class, () -> new CsvCodec('§'));
+    }
+
+    private String[] decode(String line) {
+        byte[] bytes = bytes(line);
+        return codec.decode(bytes, 0, bytes.length);
+    }
+
+    private boolean complete(String line) {
+        byte[] bytes = bytes(line);
+        return codec.isComplete(bytes, 0, bytes.length);
+    }
+
+    private static byte[] bytes(String line) {
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,170 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalSorterTest {
+    // a 2 KB arena per chunk and a merge fan-in of 2, so a few thousand lines need several merge passes
+    private static final int SMALL_MEMORY = 4 * 1024;
+    private static final int MEMORY = 1024 * 1024;
+
+    @TempDir
+    File directory;
+    private File spill;
+    private File input;
+    private File output;
+
+    @BeforeEach
+    void setUp() {
+        spill = new File(directory, "spill");
+        input = new File(directory, "input.txt");
+        output = new File(directory, "output.txt");
+    }
+
+    @Test
+    void keyExtractorOrdersNumericLines() throws IOException {
+        List<String> lines = new Random(1).longs(5_000, -1_000_000, 1_000_000).mapToObj(Long::toString).toList();
+        List<String> sorted = lines.stream().sorted(Comparator.comparingLong(Long::parseLong)).toList();
+        ToLongFunction<String> key = Long::parseLong;
+        assertEquals(sorted, sort(new ExternalSorter<>(new LineCodec(), key, SMALL_MEMORY), lines));
+    }
+
+    @Test
+    void comparatorAloneOrdersLines() throws IOException {
+        List<String> lines = words(new Random(2), 5_000);
+        List<String> sorted = lines.stream().sorted().toList();
+        assertEquals(sorted, sort(new ExternalSorter<>(new LineCodec(), Comparator.<String>naturalOrder(), SMALL_MEMORY), lines));
+    }
+
+    @Test
+    void comparatorBreaksPrefixKeyTies() throws IOException {
+        // every word shares its first four characters with many others, only the comparator can order them
+        List<String> lines = words(new Random(3), 5_000).stream().map(word -> "same" + word).toList();
+        List<String> sorted = lines.stream().sorted().toList();
+        ExternalSorter<String> sorter = new ExternalSorter<>(new LineCodec(), Keys::stringPrefix, Comparator.naturalOrder(), SMALL_MEMORY);
+        assertEquals(sorted, sort(sorter, lines));
+    }
+
+    @Test
+    void equalKeysKeepTheirInputOrder() throws IOException {
+        List<String> lines = new ArrayList<>();
+        Random random = new Random(4);
+        for (int i = 0; i < 3_000; i++) {
+            lines.add(random.nextInt(10) + "," + i);
+        }
+        ToLongFunction<String[]> key = fields -> Long.parseLong(fields[0]);
+        List<String> sorted = lines.stream().sorted(Comparator.comparingLong(line -> Long.parseLong(line.split(",")[0]))).toList();
+        assertEquals(sorted, sort(new ExternalSorter<>(new CsvCodec(','), key, SMALL_MEMORY), lines));
+    }
+
+    @Test
+    void multiPassMergeCleansUpItsRuns() throws IOException {
+        List<String> lines = words(new Random(5), 20_000);
+        ExternalSorter<String> sorter = new ExternalSorter<>(new LineCodec(), Keys::stringPrefix, Comparator.naturalOrder(), SMALL_MEMORY);
+        assertEquals(lines.stream().sorted().toList(), sort(sorter, lines));
+        assertNoSpills();
+    }
+
+    @Test
+    void comparatorDecodesEveryRecordOnce() throws IOException {
+        AtomicInteger decodes = new AtomicInteger();
+        RecordCodec<String> counting = (buffer, offset, length) -> {
+            decodes.incrementAndGet();
+            return new String(buffer, offset, length, StandardCharsets.UTF_8);
+        };
+        List<String> lines = words(new Random(6), 2_000);
+        // one chunk and one run, so nothing is decoded again during the merge
+        assertEquals(lines.stream().sorted().toList(), sort(new ExternalSorter<>(counting, Comparator.<String>naturalOrder(), MEMORY), lines));
+        assertEquals(lines.size(), decodes.get());
+    }
+
+    @Test
+    void emptyInputGivesEmptyOutput() throws IOException {
+        Files.writeString(input.toPath(), "");
+        sorter().sort(input, output);
+        assertEquals("", Files.readString(output.toPath()));
+    }
+
+    @Test
+    void blankLinesAreSkippedAndCarriageReturnsDropped() throws IOException {
+        Files.writeString(input.toPath(), "3\r\n\r\n1\n\n2");
+        sorter().sort(input, output);
+        assertEquals("1\n2\n3\n", Files.readString(output.toPath()));
+    }
+
+    @Test
+    void quotedFieldsSpanLinesAndKeepTheirContent() throws IOException {
+        Files.writeString(input.toPath(), String.join("\r\n",
+                "3,\"three, with a comma\"",
+                "1,\"one\r\nspread over\n\nlines\"",
+                "2,\"two \"\"quoted\"\"\""));
+        ExternalSorter<String[]> sorter = new ExternalSorter<>(new CsvCodec(','), fields -> Long.parseLong(fields[0]), MEMORY);
+        sorter.setTemporaryDirectory(spill);
+        sorter.sort(input, output);
+        assertEquals("1,\"one\nspread over\n\nlines\"\n2,\"two \"\"quoted\"\"\"\n3,\"three, with a comma\"\n",
+                Files.readString(output.toPath()));
+    }
+
+    @Test
+    void malformedQuotingReportsItsLine() throws IOException {
+        Files.writeString(input.toPath(), "1,a\n2,\"b\"x\n3,c\n");
+        IOException e = assertThrows(IOException.class, () -> sorter().sort(input, output));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+
+        Files.writeString(input.toPath(), "1,a\n2,\"never closed\n3,c\n");
+        e = assertThrows(IOException.class, () -> sorter().sort(input, output));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        assertNoSpills();
+    }
+
+    @Test
+    void sorterNeedsAKeyOrAComparator() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSorter<>(new LineCodec(), null, null, MEMORY));
+    }
+
+    private void assertNoSpills() {
+        String[] left = spill.list();
+        assertTrue(left == null || left.length == 0, () -> "Spill files left behind: " + String.join(", ", left));
+    }
+
+    private ExternalSorter<String[]> sorter() {
+        ExternalSorter<String[]> sorter = new ExternalSorter<>(new CsvCodec(','), fields -> Long.parseLong(fields[0]), MEMORY);
+        sorter.setTemporaryDirectory(spill);
+        return sorter;
+    }
+
+    private List<String> sort(ExternalSorter<?> sorter, List<String> lines) throws IOException {
+        Files.write(input.toPath(), lines);
+        sorter.setTemporaryDirectory(spill);
+        sorter.sort(input, output);
+        return Files.readAllLines(output.toPath());
+    }
+
+    private static List<String> words(Random random, int count) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 1 + random.nextInt(12); length > 0; length--) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+}
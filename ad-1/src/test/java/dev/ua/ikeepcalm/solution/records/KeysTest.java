@@ -0,0 +1,29 @@
+package dev.ua.ikeepcalm.solution.records;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysTest {
+
+    @Test
+    void prefixOrderFollowsStringOrder() {
+        List<String> ordered = List.of("", "A", "Z", "a", "ab", "abc", "abcd", "b", "zzzz", "é", "￿");
+        for (int i = 1; i < ordered.size(); i++) {
+            String lower = ordered.get(i - 1);
+            String higher = ordered.get(i);
+            assertTrue(Keys.stringPrefix(lower) < Keys.stringPrefix(higher), lower + " < " + higher);
+        }
+    }
+
+    @Test
+    void stringsSharingFourCharactersTie() {
+        assertEquals(Keys.stringPrefix("abcdX"), Keys.stringPrefix("abcdY"));
+        assertEquals(Keys.stringPrefix("abcd"), Keys.stringPrefix("abcd and more"));
+        // the padding is char 0, so a trailing NUL also ties with the shorter string
+        assertEquals(Keys.stringPrefix("ab"), Keys.stringPrefix("ab\u0000"));
+    }
+}
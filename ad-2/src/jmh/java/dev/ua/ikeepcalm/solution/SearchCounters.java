@@ -0,0 +1,31 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.algorithms.SearchStats;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SearchCounters {
+    public long nodes;
+    public long expansions;
+    public long unsolved;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        nodes = 0;
+        expansions = 0;
+        unsolved = 0;
+    }
+
+    void add(SearchStats stats) {
+        nodes += stats.nodes();
+        expansions += stats.expansions();
+        if (!stats.solved()) {
+            unsolved++;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.algorithms.SearchStats;
+import dev.ua.ikeepcalm.solution.algorithms.Solver;
+import dev.ua.ikeepcalm.solution.algorithms.Solvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+    private static final int BOARDS = 4096;
+
+    // filled from Solvers.names() by SolverBenchmarkRunner, narrow it with -p solver=<name>
+    @Param({})
+    public String solver;
+
+    @Param({"8"})
+    public int size;
+
+    private Solver instance;
+    private int[][][] templates;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instance = Solvers.byName(solver);
+        templates = BatchBenchmark.boards(size, BOARDS, 42);
+    }
+
+    // solvers write the solution into the board, so every call works on a fresh copy of the next seeded board
+    @Benchmark
+    public SearchStats solve(Cursor cursor, SearchCounters counters) {
+        int[][] template = templates[cursor.next];
+        cursor.next = (cursor.next + 1) % BOARDS;
+        int[][] board = new int[template.length][];
+        for (int row = 0; row < template.length; row++) {
+            board[row] = template[row].clone();
+        }
+        SearchStats stats = instance.solve(board);
+        counters.add(stats);
+        return stats;
+    }
+}
@@ -0,0 +1,26 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.algorithms.Solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SolverBenchmarkRunner {
+
+    // runs JMH with every registered solver unless the command line already picks some
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean chosen = false;
+        for (int i = 0; i + 1 < arguments.size(); i++) {
+            if (arguments.get(i).equals("-p") && arguments.get(i + 1).startsWith("solver=")) {
+                chosen = true;
+            }
+        }
+        if (!chosen) {
+            arguments.add("-p");
+            arguments.add("solver=" + String.join(",", Solvers.names()));
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
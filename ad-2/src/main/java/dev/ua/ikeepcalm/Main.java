@@ -1,8 +1,18 @@
 package dev.ua.ikeepcalm;
 
+import dev.ua.ikeepcalm.solution.BatchBenchmark;
 import dev.ua.ikeepcalm.solution.EightQueens;
 import dev.ua.ikeepcalm.solution.algorithms.AStar;
+import dev.ua.ikeepcalm.solution.algorithms.BitboardQueens;
+import dev.ua.ikeepcalm.solution.algorithms.ConsoleRenderer;
+import dev.ua.ikeepcalm.solution.algorithms.IDAStar;
 import dev.ua.ikeepcalm.solution.algorithms.LDFS;
+import dev.ua.ikeepcalm.solution.algorithms.MinConflicts;
+import dev.ua.ikeepcalm.solution.algorithms.SMAStar;
+import dev.ua.ikeepcalm.solution.algorithms.SearchObserver;
+import dev.ua.ikeepcalm.solution.algorithms.SearchStats;
+import dev.ua.ikeepcalm.solution.algorithms.Solver;
+import dev.ua.ikeepcalm.solution.algorithms.Solvers;
 
 public class Main {
 
@@ -14,14 +24,29 @@ public class Main {
         System.setProperty("sun.jnu.encoding", "UTF-8");
 
         if (args.length == 0) {
-            System.out.println(ANSI_RED + "Please specify the algorithm to use: LDFS or AStar");
+            System.out.println(ANSI_RED + "Please specify the algorithm to use: LDFS, AStar, IDAStar, SMAStar, MinConflicts [n], Bitboard <n> or Batch [boards] [size] [threads] [seed]");
+            return;
+        }
+
+        String algorithm = args[0].toUpperCase();
+        if (algorithm.equals("BATCH")) {
+            runBatch(args);
             return;
         }
 
         clearConsole();
 
-        String algorithm = args[0].toUpperCase();
+        if (algorithm.equals("BITBOARD")) {
+            countBitboardSolutions(args.length > 1 ? Integer.parseInt(args[1]) : 8);
+            return;
+        }
+        if (algorithm.equals("MINCONFLICTS") && args.length > 1 && args[1].matches("\\d+")) {
+            solveLargeBoard(Integer.parseInt(args[1]));
+            return;
+        }
+
         boolean verbose = Boolean.parseBoolean(args.length > 1 ? args[1] : "false");
+        String budget = args.length > 2 ? args[2] : null;
         EightQueens eightQueens = new EightQueens();
         eightQueens.printBoard();
 
@@ -29,62 +54,87 @@ public class Main {
 
         Thread.sleep(2000);
 
+        SearchObserver observer = verbose ? new ConsoleRenderer() : SearchObserver.NONE;
+        Solver solver;
         switch (algorithm) {
             case "LDFS":
-                System.out.println("\n\n");
-                System.out.println("Solving the problem using LDFS algorithm...");
-                System.out.println("\n\n");
-
-                if (LDFS.solveLDFS(eightQueens.getBoard(), 0, 8, verbose)) {
-                    System.out.println(ANSI_GREEN);
-                    System.out.println("----------------");
-                    System.out.println("| S O L V E D! |");
-                    System.out.println("----------------");
-                    System.out.println(ANSI_RESET + "\n");
-                    eightQueens.printBoard();
-                    System.out.println("\nIterations: " + LDFS.iterations);
-//                    System.out.println("Total nodes: " + LDFS.totalNodes);
-//                    System.out.println("Max nodes in memory: " + LDFS.maxNodesInMemory);
-                } else {
-                    System.out.println(ANSI_RED);
-                    System.out.println("----------------");
-                    System.out.println("|<!> ERROR! <!> |");
-                    System.out.println("----------------");
-                }
+                solver = new LDFS(observer);
                 break;
-
             case "ASTAR":
-                System.out.println("\n\n");
-                System.out.println("Solving the problem using A* algorithm...");
-                System.out.println("\n\n");
-
-
-                if (AStar.solveAStar(eightQueens.getBoard(), verbose)) {
-                    System.out.printf(ANSI_GREEN);
-                    System.out.println("----------------");
-                    System.out.println("| S O L V E D! |");
-                    System.out.println("----------------");
-                    System.out.println(ANSI_RESET + "\n");
-                    eightQueens.printBoard();
-                    System.out.println("\nIterations: " + AStar.iterations);
-//                    System.out.println("Total nodes: " + AStar.totalNodes);
-//                    System.out.println("Max nodes in memory: " + AStar.maxNodesInMemory);
-                } else {
-                    System.out.println(ANSI_RED);
-                    System.out.println("----------------");
-                    System.out.println("|<!> ERROR! <!> |");
-                    System.out.println("----------------");
-                }
+                solver = new AStar(observer);
                 break;
-
-            default:
-                System.out.println("Unknown algorithm specified. Please use LDFS or AStar.");
+            case "IDASTAR":
+                solver = new IDAStar(budget != null ? Long.parseLong(budget) : Solvers.DEFAULT_IDA_BUDGET, observer);
                 break;
+            case "SMASTAR":
+                solver = new SMAStar(budget != null ? Integer.parseInt(budget) : Solvers.DEFAULT_SMA_BUDGET, observer);
+                break;
+            case "MINCONFLICTS":
+                solver = new MinConflicts(observer);
+                break;
+            default:
+                System.out.println("Unknown algorithm specified. Please use LDFS, AStar, IDAStar, SMAStar, MinConflicts or Bitboard.");
+                System.out.println(ANSI_RESET);
+                return;
         }
 
+        System.out.println("\n\n");
+        System.out.println("Solving the problem using " + solver.getName() + " algorithm...");
+        System.out.println("\n\n");
+
+        SearchStats stats = solver.solve(eightQueens.getBoard());
+        if (stats.solved()) {
+            System.out.println(ANSI_GREEN);
+            System.out.println("----------------");
+            System.out.println("| S O L V E D! |");
+            System.out.println("----------------");
+            System.out.println(ANSI_RESET + "\n");
+            eightQueens.printBoard();
+        } else {
+            System.out.println(ANSI_RED);
+            System.out.println("----------------");
+            System.out.println("|<!> ERROR! <!> |");
+            System.out.println("----------------");
+            System.out.println(ANSI_RESET);
+        }
+        System.out.println("\nIterations: " + stats.expansions());
+        System.out.println("Total nodes: " + stats.nodes());
+        System.out.println("Max nodes in memory: " + stats.peakFrontier());
+        System.out.printf("Took %.3f ms%n", stats.elapsedNanos() / 1e6);
+
         System.out.println(ANSI_RESET);
     }
 
+    // prints CSV only, so the output can be redirected straight into a file
+    private static void runBatch(String[] args) throws InterruptedException {
+        int boards = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        new BatchBenchmark(size, boards, seed, threads).run(Solvers.all(), System.out);
+    }
+
+    private static void countBitboardSolutions(int n) {
+        System.out.println("Counting solutions for " + n + " queens using bitboards on " + Runtime.getRuntime().availableProcessors() + " threads...");
+        long start = System.nanoTime();
+        long solutions = BitboardQueens.countSolutions(n);
+        System.out.println(ANSI_GREEN + "Solutions: " + solutions + ANSI_RESET);
+        System.out.println("Took " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static void solveLargeBoard(int n) {
+        System.out.println("Placing " + n + " queens using min-conflicts local search...");
+        long start = System.nanoTime();
+        SearchStats stats = new MinConflicts().place(new int[n]);
+        if (!stats.solved()) {
+            System.out.println(ANSI_RED + "No solution found" + ANSI_RESET);
+            return;
+        }
+        System.out.println(ANSI_GREEN + "Solved " + n + " queens" + ANSI_RESET);
+        System.out.println("Iterations: " + stats.expansions() + ", columns scored: " + stats.nodes());
+        System.out.println("Took " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
     private static void clearConsole() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
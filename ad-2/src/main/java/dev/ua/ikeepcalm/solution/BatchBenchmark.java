@@ -0,0 +1,153 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.algorithms.SearchStats;
+import dev.ua.ikeepcalm.solution.algorithms.Solver;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchBenchmark {
+
+    public static final String CSV_HEADER = "solver,size,boards,threads,solved,solves_per_sec,p50_us,p90_us,p99_us,max_us,"
+            + "mean_nodes,mean_expansions,mean_peak_frontier,alloc_bytes_per_solve";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int size;
+    private final int boards;
+    private final long seed;
+    private final int threads;
+    private int warmupRounds = 1;
+
+    public BatchBenchmark(int size, int boards, long seed, int threads) {
+        if (size < 1 || boards < 1 || threads < 1) {
+            throw new IllegalArgumentException("Board size, board count and threads must be positive");
+        }
+        this.size = size;
+        this.boards = boards;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    public void setWarmupRounds(int warmupRounds) {
+        this.warmupRounds = warmupRounds;
+    }
+
+    // the same seeded boards for every solver, so the rows of the report compare like with like
+    public static int[][][] boards(int size, int count, long seed) {
+        Random random = new Random(seed);
+        int[][][] boards = new int[count][][];
+        for (int i = 0; i < count; i++) {
+            boards[i] = EightQueens.randomBoard(size, random);
+        }
+        return boards;
+    }
+
+    public void run(List<Solver> solvers, PrintStream csv) throws InterruptedException {
+        int[][][] templates = boards(size, boards, seed);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            csv.println(CSV_HEADER);
+            for (Solver solver : solvers) {
+                for (int round = 0; round < warmupRounds; round++) {
+                    measure(solver, templates, executor);
+                }
+                csv.println(measure(solver, templates, executor).toCsv(solver.getName(), size, threads));
+                csv.flush();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Result measure(Solver solver, int[][][] templates, ExecutorService executor) throws InterruptedException {
+        List<Future<Sample>> futures = new ArrayList<>(templates.length);
+        long start = System.nanoTime();
+        for (int[][] template : templates) {
+            futures.add(executor.submit(() -> solve(solver, template)));
+        }
+        Result result = new Result(templates.length);
+        for (Future<Sample> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(solver.getName() + " failed", e.getCause());
+            }
+        }
+        result.wallNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    // allocation is read from the worker thread itself, the board copy is part of every solve's cost alike
+    private static Sample solve(Solver solver, int[][] template) {
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        int[][] board = new int[template.length][];
+        for (int row = 0; row < template.length; row++) {
+            board[row] = template[row].clone();
+        }
+        SearchStats stats = solver.solve(board);
+        return new Sample(stats, THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    record Sample(SearchStats stats, long allocatedBytes) {
+    }
+
+    // nearest rank over the first count entries of sorted, in microseconds; an empty sample reports 0
+    static double percentile(long[] sorted, int count, double p) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))] / 1e3;
+    }
+
+    static final class Result {
+        private final long[] latencies;
+        private int count;
+        private int solved;
+        private long nodes;
+        private long expansions;
+        private long peakFrontier;
+        private long allocatedBytes;
+        long wallNanos;
+
+        Result(int capacity) {
+            this.latencies = new long[capacity];
+        }
+
+        void add(Sample sample) {
+            SearchStats stats = sample.stats();
+            latencies[count++] = stats.elapsedNanos();
+            if (stats.solved()) {
+                solved++;
+            }
+            nodes += stats.nodes();
+            expansions += stats.expansions();
+            peakFrontier += stats.peakFrontier();
+            allocatedBytes += sample.allocatedBytes();
+        }
+
+        // a row of CSV_HEADER; an empty result reports zeros rather than dividing by its count
+        String toCsv(String name, int size, int threads) {
+            Arrays.sort(latencies, 0, count);
+            int divisor = Math.max(1, count);
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%d",
+                    name, size, count, threads, solved,
+                    wallNanos == 0 ? 0 : count * 1e9 / wallNanos,
+                    percentile(latencies, count, 0.50), percentile(latencies, count, 0.90),
+                    percentile(latencies, count, 0.99), percentile(latencies, count, 1.0),
+                    (double) nodes / divisor, (double) expansions / divisor, (double) peakFrontier / divisor,
+                    allocatedBytes / divisor);
+        }
+    }
+}
@@ -5,18 +5,19 @@ import java.util.Random;
 public class EightQueens {
 
     private static final int SIZE = 8;
-    private final int[][] board = new int[SIZE][SIZE];
+    private final int[][] board;
 
     public EightQueens() {
-        generateRandomBoard();
+        board = randomBoard(SIZE, new Random());
     }
 
-    private void generateRandomBoard() {
-        Random random = new Random();
-        for (int i = 0; i < SIZE; i++) {
-            int col = random.nextInt(SIZE);
-            board[i][col] = 1;
+    // one queen per row in a random column, the same seed always gives the same board
+    public static int[][] randomBoard(int size, Random random) {
+        int[][] board = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            board[i][random.nextInt(size)] = 1;
         }
+        return board;
     }
 
     public int[][] getBoard() {
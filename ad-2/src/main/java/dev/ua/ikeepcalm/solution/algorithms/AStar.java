@@ -1,155 +1,84 @@
 package dev.ua.ikeepcalm.solution.algorithms;
 
-import java.util.*;
+public class AStar implements Solver {
 
-public class AStar {
+    private static final int INITIAL_CAPACITY = 1024;
 
-    public static int iterations = 0;
-    private static final int SIZE = 8;
-    private static final String ANSI_CLEAR = "\033[H";
-    private static final String ANSI_RESET = "\033[2J";
+    private final SearchObserver observer;
 
-    public static int totalNodes = 0;
-    public static int maxNodesInMemory = 0;
+    public AStar() {
+        this(SearchObserver.NONE);
+    }
 
-    private static class Node {
-        int[][] board;
-        int g;
-        int h;
-        int f;
+    public AStar(SearchObserver observer) {
+        this.observer = observer;
+    }
 
-        Node(int[][] board, int g, int h) {
-            this.board = board;
-            this.g = g;
-            this.h = h;
-            this.f = g + h;
-        }
+    @Override
+    public String getName() {
+        return "AStar";
     }
 
-    public static boolean solveAStar(int[][] initialBoard, boolean verbose) throws InterruptedException {
-        if (verbose) {
-            System.out.println(ANSI_RESET);
-        }
+    @Override
+    public SearchStats solve(int[][] initialBoard) {
+        long start = System.nanoTime();
+        long nodes = 0;
+        long expansions = 0;
+        long peak = 0;
 
-        PriorityQueue<Node> openList = new PriorityQueue<>(Comparator.comparingInt(n -> n.f));
-        Set<String> closedList = new HashSet<>();
+        int size = initialBoard.length;
+        int bits = QueenState.bitsPerQueen(size);
+        int[] columns = QueenState.columns(initialBoard);
+        LineCounts lines = new LineCounts(size);
+        observer.started(columns);
 
-        Node startNode = new Node(initialBoard, 0, heuristic(initialBoard));
-        openList.add(startNode);
-        totalNodes++;
+        NodeQueue openList = new NodeQueue(INITIAL_CAPACITY);
+        LongHashSet closedList = new LongHashSet(INITIAL_CAPACITY);
+
+        lines.count(columns);
+        openList.push(QueenState.encode(columns, bits), 0, lines.attackingPairs());
+        nodes++;
 
         while (!openList.isEmpty()) {
-            iterations++;
-            maxNodesInMemory = Math.max(maxNodesInMemory, openList.size() + closedList.size());
-
-            Node currentNode = openList.poll();
-            if (currentNode.h == 0) {
-                copyBoard(currentNode.board, initialBoard);
-                if (verbose) {
-                    System.out.println(ANSI_CLEAR);
-                    printBoard(currentNode.board);
-                }
-                return true;
+            expansions++;
+            peak = Math.max(peak, openList.size() + closedList.size());
+
+            long key = openList.peekKey();
+            int g = openList.peekG();
+            int h = openList.peekH();
+            openList.pop();
+
+            QueenState.decode(key, bits, columns);
+            if (h == 0) {
+                QueenState.fill(columns, initialBoard);
+                observer.solved(columns);
+                return new SearchStats(true, nodes, expansions, peak, System.nanoTime() - start);
             }
 
-            closedList.add(boardToString(currentNode.board));
-
-            for (int[][] neighbor : generateNeighbors(currentNode.board)) {
-                if (closedList.contains(boardToString(neighbor))) {
-                    continue;
-                }
-
-                int g = currentNode.g + 1;
-                int h = heuristic(neighbor);
-                Node neighborNode = new Node(neighbor, g, h);
-                openList.add(neighborNode);
-                totalNodes++;
-
-                if (verbose) {
-                    System.out.println(ANSI_CLEAR);
-                    printBoard(currentNode.board);
-                }
-
+            if (!closedList.add(key)) {
+                continue;
             }
-        }
-
-        return false;
-    }
 
-    private static int heuristic(int[][] board) {
-        int h = 0;
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (board[i][j] == 1) {
-                    for (int k = i + 1; k < SIZE; k++) {
-                        if (board[k][j] == 1) {
-                            h++;
-                        }
-                        int diag1 = j - (k - i);
-                        int diag2 = j + (k - i);
-                        if (diag1 >= 0 && board[k][diag1] == 1) {
-                            h++;
-                        }
-                        if (diag2 < SIZE && board[k][diag2] == 1) {
-                            h++;
-                        }
+            // neighbours move one queen inside its row, their h follows from the parent's line counts in O(1)
+            lines.count(columns);
+            for (int row = 0; row < size; row++) {
+                int removed = h - lines.attacks(row, columns[row], columns[row]);
+                for (int col = 0; col < size; col++) {
+                    if (col == columns[row]) {
+                        continue;
                     }
-                }
-            }
-        }
-        return h;
-    }
-
-    private static List<int[][]> generateNeighbors(int[][] board) {
-        List<int[][]> neighbors = new ArrayList<>();
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (board[i][j] == 1) {
-                    for (int k = 0; k < SIZE; k++) {
-                        if (k != j) {
-                            int[][] newBoard = copyBoard(board);
-                            newBoard[i][j] = 0;
-                            newBoard[i][k] = 1;
-                            neighbors.add(newBoard);
-                        }
+                    long neighbor = QueenState.withColumn(key, bits, row, col);
+                    if (closedList.contains(neighbor)) {
+                        continue;
                     }
+                    openList.push(neighbor, g + 1, removed + lines.attacks(row, col, columns[row]));
+                    nodes++;
                 }
             }
-        }
-        return neighbors;
-    }
-
-    private static int[][] copyBoard(int[][] board) {
-        int[][] newBoard = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(board[i], 0, newBoard[i], 0, SIZE);
-        }
-        return newBoard;
-    }
-
-    private static void copyBoard(int[][] source, int[][] destination) {
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(source[i], 0, destination[i], 0, SIZE);
-        }
-    }
 
-    private static String boardToString(int[][] board) {
-        StringBuilder sb = new StringBuilder();
-        for (int[] row : board) {
-            for (int cell : row) {
-                sb.append(cell);
-            }
+            observer.expanded(columns);
         }
-        return sb.toString();
-    }
 
-    private static void printBoard(int[][] board) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                System.out.print(board[i][j] + " ");
-            }
-            System.out.println();
-        }
-        System.out.println();
+        return new SearchStats(false, nodes, expansions, peak, System.nanoTime() - start);
     }
 }
@@ -0,0 +1,152 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+public class BitboardQueens {
+
+    public static final int MAX_N = Long.SIZE - 1;
+
+    public static long countSolutions(int n) {
+        return countSolutions(n, ForkJoinPool.commonPool());
+    }
+
+    public static long countSolutions(int n, ForkJoinPool pool) {
+        return pool.invoke(new RootTask(n, null));
+    }
+
+    public static long enumerateSolutions(int n, Consumer<int[]> consumer) {
+        return enumerateSolutions(n, consumer, ForkJoinPool.commonPool());
+    }
+
+    // the consumer is called from several worker threads at once
+    public static long enumerateSolutions(int n, Consumer<int[]> consumer, ForkJoinPool pool) {
+        return pool.invoke(new RootTask(n, consumer));
+    }
+
+    // tasks never leave the pool, the Serializable that RecursiveTask inherits is unused
+    @SuppressWarnings("serial")
+    private static final class RootTask extends RecursiveTask<Long> {
+        private final int n;
+        private final Consumer<int[]> consumer;
+
+        RootTask(int n, Consumer<int[]> consumer) {
+            if (n < 1 || n > MAX_N) {
+                throw new IllegalArgumentException("Board size must be between 1 and " + MAX_N);
+            }
+            this.n = n;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected Long compute() {
+            long all = (1L << n) - 1;
+            if (n == 1) {
+                if (consumer != null) {
+                    consumer.accept(new int[]{0});
+                }
+                return 1L;
+            }
+
+            // only first-row queens in the left half are searched, their mirror images are counted twice;
+            // with an odd size the middle column is kept and the second row is halved instead
+            int half = n / 2;
+            List<PrefixTask> tasks = new ArrayList<>();
+            for (int first = 0; first < n; first++) {
+                boolean middle = n % 2 == 1 && first == half;
+                if (first >= half && !middle) {
+                    continue;
+                }
+                long firstBit = 1L << first;
+                long free = all & ~(firstBit | firstBit << 1 | firstBit >>> 1);
+                while (free != 0) {
+                    long secondBit = free & -free;
+                    free ^= secondBit;
+                    int second = Long.numberOfTrailingZeros(secondBit);
+                    if (middle && second > half) {
+                        continue;
+                    }
+                    int[] columns = new int[n];
+                    columns[0] = first;
+                    columns[1] = second;
+                    tasks.add(new PrefixTask(n, all, columns, firstBit | secondBit,
+                            (firstBit << 1 | secondBit) << 1, (firstBit >>> 1 | secondBit) >>> 1, consumer));
+                }
+            }
+
+            long solutions = 0;
+            for (PrefixTask task : ForkJoinTask.invokeAll(tasks)) {
+                solutions += task.join();
+            }
+            return solutions;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class PrefixTask extends RecursiveTask<Long> {
+        private final int n;
+        private final long all;
+        private final int[] columns;
+        private final long occupied;
+        private final long leftDiagonals;
+        private final long rightDiagonals;
+        private final Consumer<int[]> consumer;
+
+        PrefixTask(int n, long all, int[] columns, long occupied, long leftDiagonals, long rightDiagonals, Consumer<int[]> consumer) {
+            this.n = n;
+            this.all = all;
+            this.columns = columns;
+            this.occupied = occupied;
+            this.leftDiagonals = leftDiagonals;
+            this.rightDiagonals = rightDiagonals;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected Long compute() {
+            long found = consumer == null
+                    ? count(occupied, leftDiagonals, rightDiagonals)
+                    : enumerate(2, occupied, leftDiagonals, rightDiagonals);
+            return found * 2;
+        }
+
+        private long count(long occupied, long leftDiagonals, long rightDiagonals) {
+            if (occupied == all) {
+                return 1;
+            }
+            long solutions = 0;
+            long free = all & ~(occupied | leftDiagonals | rightDiagonals);
+            while (free != 0) {
+                long bit = free & -free;
+                free ^= bit;
+                solutions += count(occupied | bit, (leftDiagonals | bit) << 1, (rightDiagonals | bit) >>> 1);
+            }
+            return solutions;
+        }
+
+        private long enumerate(int row, long occupied, long leftDiagonals, long rightDiagonals) {
+            if (occupied == all) {
+                consumer.accept(columns.clone());
+                int[] mirror = new int[n];
+                for (int i = 0; i < n; i++) {
+                    mirror[i] = n - 1 - columns[i];
+                }
+                consumer.accept(mirror);
+                return 1;
+            }
+            long solutions = 0;
+            long free = all & ~(occupied | leftDiagonals | rightDiagonals);
+            while (free != 0) {
+                long bit = free & -free;
+                free ^= bit;
+                columns[row] = Long.numberOfTrailingZeros(bit);
+                solutions += enumerate(row + 1, occupied | bit, (leftDiagonals | bit) << 1, (rightDiagonals | bit) >>> 1);
+            }
+            return solutions;
+        }
+    }
+}
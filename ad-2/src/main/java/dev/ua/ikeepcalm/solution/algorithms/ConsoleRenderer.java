@@ -0,0 +1,47 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+public class ConsoleRenderer implements SearchObserver {
+
+    private static final String ANSI_CLEAR = "\033[H";
+    private static final String ANSI_RESET = "\033[2J";
+
+    private final long backtrackDelayMillis;
+
+    public ConsoleRenderer() {
+        this(50);
+    }
+
+    public ConsoleRenderer(long backtrackDelayMillis) {
+        this.backtrackDelayMillis = backtrackDelayMillis;
+    }
+
+    @Override
+    public synchronized void started(int[] columns) {
+        System.out.println(ANSI_RESET);
+    }
+
+    @Override
+    public synchronized void expanded(int[] columns) {
+        render(columns);
+    }
+
+    @Override
+    public synchronized void backtracked(int[] columns) {
+        render(columns);
+        try {
+            Thread.sleep(backtrackDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void solved(int[] columns) {
+        render(columns);
+    }
+
+    private void render(int[] columns) {
+        System.out.println(ANSI_CLEAR);
+        QueenState.print(columns);
+    }
+}
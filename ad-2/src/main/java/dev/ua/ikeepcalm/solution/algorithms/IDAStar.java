@@ -0,0 +1,112 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+public class IDAStar implements Solver {
+
+    private final long nodeBudget;
+    private final SearchObserver observer;
+
+    public IDAStar(long nodeBudget) {
+        this(nodeBudget, SearchObserver.NONE);
+    }
+
+    public IDAStar(long nodeBudget, SearchObserver observer) {
+        this.nodeBudget = nodeBudget;
+        this.observer = observer;
+    }
+
+    @Override
+    public String getName() {
+        return "IDAStar";
+    }
+
+    // memory stays at one path, the node budget caps how much re-expansion the deepening may cost
+    @Override
+    public SearchStats solve(int[][] initialBoard) {
+        long start = System.nanoTime();
+        Search search = new Search(QueenState.columns(initialBoard));
+        observer.started(search.columns);
+        if (search.size == 2 || search.size == 3) {
+            // no placement exists, deepening would only burn the whole node budget to find that out
+            return new SearchStats(false, 0, 0, 0, System.nanoTime() - start);
+        }
+
+        boolean solved = false;
+        int h = search.lines.attackingPairs();
+        int threshold = h;
+        while (true) {
+            search.nextThreshold = Integer.MAX_VALUE;
+            if (search.search(0, h, threshold, -1)) {
+                QueenState.fill(search.columns, initialBoard);
+                observer.solved(search.columns);
+                solved = true;
+                break;
+            }
+            if (search.generated > nodeBudget || search.nextThreshold == Integer.MAX_VALUE) {
+                break;
+            }
+            threshold = search.nextThreshold;
+        }
+        return new SearchStats(solved, Math.min(search.generated, nodeBudget), search.expansions, search.peak, System.nanoTime() - start);
+    }
+
+    private final class Search {
+        private final int size;
+        private final int[] columns;
+        private final LineCounts lines;
+        private long generated;
+        private long expansions;
+        private long peak;
+        private int nextThreshold;
+
+        Search(int[] columns) {
+            this.size = columns.length;
+            this.columns = columns;
+            this.lines = new LineCounts(size);
+            lines.count(columns);
+        }
+
+        boolean search(int g, int h, int threshold, int lastRow) {
+            int f = g + h;
+            if (f > threshold) {
+                nextThreshold = Math.min(nextThreshold, f);
+                return false;
+            }
+            if (h == 0) {
+                return true;
+            }
+
+            expansions++;
+            peak = Math.max(peak, g + 1);
+            observer.expanded(columns);
+
+            // moving the same row twice in a row is never shorter than moving it once
+            for (int row = 0; row < size; row++) {
+                if (row == lastRow) {
+                    continue;
+                }
+                int from = columns[row];
+                int removed = h - lines.attacks(row, from, from);
+                for (int col = 0; col < size; col++) {
+                    if (col == from) {
+                        continue;
+                    }
+                    if (++generated > nodeBudget) {
+                        return false;
+                    }
+                    int childH = removed + lines.attacks(row, col, from);
+                    lines.move(row, from, col);
+                    columns[row] = col;
+                    if (search(g + 1, childH, threshold, row)) {
+                        return true;
+                    }
+                    lines.move(row, col, from);
+                    columns[row] = from;
+                    if (generated > nodeBudget) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
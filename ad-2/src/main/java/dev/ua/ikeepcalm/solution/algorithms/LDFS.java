@@ -1,103 +1,98 @@
 package dev.ua.ikeepcalm.solution.algorithms;
 
-public class LDFS {
+public class LDFS implements Solver {
 
-    public static int iterations = 0;
-    private static final int N = 8;
+    private final SearchObserver observer;
 
-    private static final String ANSI_CLEAR = "\033[H";
-    private static final String ANSI_RESET = "\033[2J";
-
-    public static int totalNodes = 0;
-    public static int maxNodesInMemory = 0;
+    public LDFS() {
+        this(SearchObserver.NONE);
+    }
 
-    public static boolean solveLDFS(int[][] board, int depth, int maxDepth, boolean print) throws InterruptedException {
-        if (print) {
-            System.out.println(ANSI_RESET);
-        }
+    public LDFS(SearchObserver observer) {
+        this.observer = observer;
+    }
 
-        iterations++;
-        totalNodes++;
+    @Override
+    public String getName() {
+        return "LDFS";
+    }
 
-        maxNodesInMemory = Math.max(maxNodesInMemory, depth);
+    @Override
+    public SearchStats solve(int[][] board) {
+        return solve(board, board.length);
+    }
 
-        if (depth == N) {
-            if (print) {
-                System.out.println(ANSI_CLEAR);
-                printBoard(board);
-            }
-            return true;
+    public SearchStats solve(int[][] board, int maxDepth) {
+        long start = System.nanoTime();
+        Search search = new Search(QueenState.columns(board));
+        observer.started(search.columns);
+        boolean solved = search.solve(0, maxDepth);
+        if (solved) {
+            QueenState.fill(search.columns, board);
         }
+        return new SearchStats(solved, search.nodes, search.expansions, search.peak, System.nanoTime() - start);
+    }
 
-        if (depth >= maxDepth) {
-            return false;
+    private final class Search {
+        private final int n;
+        private final int[] columns;
+        private long nodes;
+        private long expansions;
+        private long peak;
+
+        Search(int[] columns) {
+            this.n = columns.length;
+            this.columns = columns;
         }
 
-        int currentQueenCol = -1;
-        for (int col = 0; col < N; col++) {
-            if (board[depth][col] == 1) {
-                currentQueenCol = col;
-                break;
+        boolean solve(int depth, int maxDepth) {
+            expansions++;
+            nodes++;
+
+            peak = Math.max(peak, depth);
+
+            if (depth == n) {
+                observer.solved(columns);
+                return true;
             }
-        }
 
-        for (int col = 0; col < N; col++) {
-            if (col == currentQueenCol) {
-                continue;
+            if (depth >= maxDepth) {
+                return false;
             }
 
-            if (isSafe(board, depth, col)) {
-                board[depth][currentQueenCol] = 0;
-                board[depth][col] = 1;
+            int currentQueenCol = columns[depth];
 
-                if (solveLDFS(board, depth + 1, maxDepth, print)) {
-                    return true;
+            for (int col = 0; col < n; col++) {
+                if (col == currentQueenCol) {
+                    continue;
                 }
 
-                board[depth][col] = 0;
-                board[depth][currentQueenCol] = 1;
-                if (print) {
-                    System.out.println(ANSI_CLEAR);
-                    printBoard(board);
-                    Thread.sleep(50);
-                }
-            }
-        }
+                if (isSafe(depth, col)) {
+                    columns[depth] = col;
 
-        return false;
-    }
+                    if (solve(depth + 1, maxDepth)) {
+                        return true;
+                    }
 
-    private static void printBoard(int[][] board) {
-        for (int i = 0; i < N; i++) {
-            for (int j = 0; j < N; j++) {
-                System.out.print(board[i][j] + " ");
+                    columns[depth] = currentQueenCol;
+                    observer.backtracked(columns);
+                }
             }
-            System.out.println();
-        }
-        System.out.println();
-    }
 
-    private static boolean isSafe(int[][] board, int row, int col) {
-        totalNodes++;
-
-        for (int i = 0; i < row; i++) {
-            if (board[i][col] == 1) {
-                return false;
-            }
+            return false;
         }
 
-        for (int i = row, j = col; i >= 0 && j >= 0; i--, j--) {
-            if (board[i][j] == 1) {
-                return false;
-            }
-        }
+        private boolean isSafe(int row, int col) {
+            nodes++;
 
-        for (int i = row, j = col; i >= 0 && j < N; i--, j++) {
-            if (board[i][j] == 1) {
-                return false;
+            for (int i = 0; i < row; i++) {
+                int distance = columns[i] - col;
+                if (distance == 0 || distance == row - i || distance == i - row) {
+                    return false;
+                }
             }
-        }
 
-        return true;
+            return true;
+        }
     }
 }
@@ -0,0 +1,55 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Arrays;
+
+class LineCounts {
+    private final int size;
+    private final int[] columnCount;
+    private final int[] diagonalCount;
+    private final int[] antiDiagonalCount;
+
+    LineCounts(int size) {
+        this.size = size;
+        this.columnCount = new int[size];
+        this.diagonalCount = new int[2 * size - 1];
+        this.antiDiagonalCount = new int[2 * size - 1];
+    }
+
+    void count(int[] columns) {
+        Arrays.fill(columnCount, 0);
+        Arrays.fill(diagonalCount, 0);
+        Arrays.fill(antiDiagonalCount, 0);
+        for (int row = 0; row < columns.length; row++) {
+            columnCount[columns[row]]++;
+            diagonalCount[row + columns[row]]++;
+            antiDiagonalCount[row - columns[row] + size - 1]++;
+        }
+    }
+
+    void move(int row, int from, int to) {
+        columnCount[from]--;
+        diagonalCount[row + from]--;
+        antiDiagonalCount[row - from + size - 1]--;
+        columnCount[to]++;
+        diagonalCount[row + to]++;
+        antiDiagonalCount[row - to + size - 1]++;
+    }
+
+    int attackingPairs() {
+        return pairs(columnCount) + pairs(diagonalCount) + pairs(antiDiagonalCount);
+    }
+
+    private static int pairs(int[] counts) {
+        int pairs = 0;
+        for (int count : counts) {
+            pairs += count * (count - 1) / 2;
+        }
+        return pairs;
+    }
+
+    // queens a queen at (row, column) attacks, ignoring the queen this row currently holds at current
+    int attacks(int row, int column, int current) {
+        int attacks = columnCount[column] + diagonalCount[row + column] + antiDiagonalCount[row - column + size - 1];
+        return column == current ? attacks - 3 : attacks;
+    }
+}
@@ -0,0 +1,89 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Arrays;
+
+class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    // EMPTY marks free slots, so the key 0 is tracked on the side
+    private boolean containsEmptyKey;
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmptyKey;
+        }
+        int index = hash(key) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmptyKey) {
+                return false;
+            }
+            containsEmptyKey = true;
+            size++;
+            return true;
+        }
+        int index = hash(key) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = key;
+        if (++size > slots.length * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmptyKey = false;
+        size = 0;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        mask = slots.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int index = hash(key) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = key;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,284 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class MinConflicts implements Solver {
+
+    private static final int GREEDY_ATTEMPTS = 64;
+    private static final int FULL_SCAN_LIMIT = 1024;
+    private static final int SAMPLED_COLUMNS = 256;
+    private static final int MIN_STEPS = 512;
+    private static final int MAX_RESTARTS = 10_000;
+
+    private final Long seed;
+    private final SearchObserver observer;
+
+    public MinConflicts() {
+        this(null, SearchObserver.NONE);
+    }
+
+    public MinConflicts(SearchObserver observer) {
+        this(null, observer);
+    }
+
+    public MinConflicts(long seed) {
+        this(seed, SearchObserver.NONE);
+    }
+
+    private MinConflicts(Long seed, SearchObserver observer) {
+        this.seed = seed;
+        this.observer = observer;
+    }
+
+    @Override
+    public String getName() {
+        return "MinConflicts";
+    }
+
+    @Override
+    public SearchStats solve(int[][] board) {
+        int[] columns = QueenState.columns(board);
+        SearchStats stats = solve(columns);
+        if (stats.solved()) {
+            QueenState.fill(columns, board);
+        }
+        return stats;
+    }
+
+    // repairs the given placement, writing the solution back into it
+    public SearchStats solve(int[] columns) {
+        return solve(columns, true);
+    }
+
+    // ignores the current contents and starts from a greedy placement, which is what boards of millions of queens need
+    public SearchStats place(int[] columns) {
+        return solve(columns, false);
+    }
+
+    private SearchStats solve(int[] columns, boolean seeded) {
+        long start = System.nanoTime();
+        int n = columns.length;
+        if (n < 1) {
+            throw new IllegalArgumentException("Board size must be positive");
+        }
+        observer.started(columns);
+        if (n == 2 || n == 3) {
+            return new SearchStats(false, 0, 0, 0, System.nanoTime() - start);
+        }
+        Search search = new Search(n, new Random(seed != null ? seed : ThreadLocalRandom.current().nextLong()));
+        long maxSteps = Math.max(MIN_STEPS, 2L * n);
+        boolean solved = false;
+        for (int attempt = 0; attempt <= MAX_RESTARTS && !solved; attempt++) {
+            if (attempt == 0 && seeded) {
+                search.place(columns);
+            } else {
+                search.placeGreedily();
+            }
+            solved = search.repair(maxSteps);
+        }
+        if (solved) {
+            System.arraycopy(search.columns, 0, columns, 0, n);
+            observer.solved(columns);
+        }
+        // local search keeps a single placement in memory
+        return new SearchStats(solved, search.nodes, search.expansions, 1, System.nanoTime() - start);
+    }
+
+    private final class Search {
+        private final int n;
+        private final Random random;
+        private final int[] columns;
+        private final int[] columnCount;
+        private final int[] diagonalCount;
+        private final int[] antiDiagonalCount;
+        // xor of the rows standing on each line, so the other queen of a line holding two is found in O(1)
+        private final int[] columnRows;
+        private final int[] diagonalRows;
+        private final int[] antiDiagonalRows;
+        private final int[] candidates;
+        private final boolean[] tracked;
+        private int candidateCount;
+        private long nodes;
+        private long expansions;
+
+        Search(int n, Random random) {
+            this.n = n;
+            this.random = random;
+            this.columns = new int[n];
+            this.columnCount = new int[n];
+            this.diagonalCount = new int[2 * n - 1];
+            this.antiDiagonalCount = new int[2 * n - 1];
+            this.columnRows = new int[n];
+            this.diagonalRows = new int[2 * n - 1];
+            this.antiDiagonalRows = new int[2 * n - 1];
+            this.candidates = new int[n];
+            this.tracked = new boolean[n];
+        }
+
+        private void clear() {
+            Arrays.fill(columnCount, 0);
+            Arrays.fill(diagonalCount, 0);
+            Arrays.fill(antiDiagonalCount, 0);
+            Arrays.fill(columnRows, 0);
+            Arrays.fill(diagonalRows, 0);
+            Arrays.fill(antiDiagonalRows, 0);
+        }
+
+        private void place(int[] seedColumns) {
+            clear();
+            for (int row = 0; row < n; row++) {
+                if (seedColumns[row] < 0 || seedColumns[row] >= n) {
+                    throw new IllegalArgumentException("Queen in row " + (row + 1) + " is off the board");
+                }
+                add(row, seedColumns[row]);
+            }
+        }
+
+        // places queens on a random permutation of columns, preferring free diagonals, so only a few rows near the end conflict
+        private void placeGreedily() {
+            clear();
+            int[] unused = new int[n];
+            for (int i = 0; i < n; i++) {
+                unused[i] = i;
+            }
+            for (int row = 0; row < n; row++) {
+                int chosen = -1;
+                for (int attempt = 0; attempt < GREEDY_ATTEMPTS && chosen < 0; attempt++) {
+                    int index = row + random.nextInt(n - row);
+                    int column = unused[index];
+                    if (diagonalCount[row + column] == 0 && antiDiagonalCount[row - column + n - 1] == 0) {
+                        chosen = index;
+                    }
+                }
+                if (chosen < 0) {
+                    chosen = row + random.nextInt(n - row);
+                }
+                int column = unused[chosen];
+                unused[chosen] = unused[row];
+                unused[row] = column;
+                add(row, column);
+            }
+        }
+
+        private boolean repair(long maxSteps) {
+            collectCandidates();
+            long steps = 0;
+            while (candidateCount > 0) {
+                int index = random.nextInt(candidateCount);
+                int row = candidates[index];
+                if (conflicts(row, columns[row]) == 0) {
+                    untrack(index);
+                    continue;
+                }
+                if (steps++ == maxSteps) {
+                    return false;
+                }
+                expansions++;
+
+                remove(row, columns[row]);
+                int best = bestColumn(row);
+                add(row, best);
+                observer.expanded(columns);
+                if (conflicts(row, best) == 0) {
+                    untrack(index);
+                } else {
+                    trackAttackedQueens(row, best);
+                }
+            }
+            return true;
+        }
+
+        private void trackAttackedQueens(int row, int column) {
+            int diagonal = row + column;
+            int antiDiagonal = row - column + n - 1;
+            if (columnCount[column] > 2 || diagonalCount[diagonal] > 2 || antiDiagonalCount[antiDiagonal] > 2) {
+                // crowded lines do not reveal their queens, fall back to a full scan
+                collectCandidates();
+                return;
+            }
+            if (columnCount[column] == 2) {
+                track(columnRows[column] ^ row);
+            }
+            if (diagonalCount[diagonal] == 2) {
+                track(diagonalRows[diagonal] ^ row);
+            }
+            if (antiDiagonalCount[antiDiagonal] == 2) {
+                track(antiDiagonalRows[antiDiagonal] ^ row);
+            }
+        }
+
+        private void track(int row) {
+            if (!tracked[row]) {
+                tracked[row] = true;
+                candidates[candidateCount++] = row;
+            }
+        }
+
+        private void untrack(int index) {
+            tracked[candidates[index]] = false;
+            candidates[index] = candidates[--candidateCount];
+        }
+
+        private int bestColumn(int row) {
+            int best = -1;
+            int bestConflicts = Integer.MAX_VALUE;
+            int ties = 0;
+            boolean fullScan = n <= FULL_SCAN_LIMIT;
+            int count = fullScan ? n : SAMPLED_COLUMNS;
+            nodes += count;
+            for (int i = 0; i < count; i++) {
+                int column = fullScan ? i : random.nextInt(n);
+                int conflicts = conflicts(row, column);
+                if (conflicts < bestConflicts) {
+                    best = column;
+                    bestConflicts = conflicts;
+                    ties = 1;
+                    if (conflicts == 0 && !fullScan) {
+                        break;
+                    }
+                } else if (conflicts == bestConflicts && random.nextInt(++ties) == 0) {
+                    best = column;
+                }
+            }
+            return best;
+        }
+
+        private void collectCandidates() {
+            candidateCount = 0;
+            for (int row = 0; row < n; row++) {
+                tracked[row] = conflicts(row, columns[row]) > 0;
+                if (tracked[row]) {
+                    candidates[candidateCount++] = row;
+                }
+            }
+        }
+
+        // conflicts a queen at (row, column) would have, not counting a queen of this row already standing there
+        private int conflicts(int row, int column) {
+            int self = columns[row] == column ? 3 : 0;
+            return columnCount[column] + diagonalCount[row + column] + antiDiagonalCount[row - column + n - 1] - self;
+        }
+
+        private void add(int row, int column) {
+            columns[row] = column;
+            columnCount[column]++;
+            diagonalCount[row + column]++;
+            antiDiagonalCount[row - column + n - 1]++;
+            columnRows[column] ^= row;
+            diagonalRows[row + column] ^= row;
+            antiDiagonalRows[row - column + n - 1] ^= row;
+        }
+
+        private void remove(int row, int column) {
+            columnCount[column]--;
+            diagonalCount[row + column]--;
+            antiDiagonalCount[row - column + n - 1]--;
+            columnRows[column] ^= row;
+            diagonalRows[row + column] ^= row;
+            antiDiagonalRows[row - column + n - 1] ^= row;
+            columns[row] = -1;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Arrays;
+
+class NodeQueue {
+    private long[] keys;
+    private int[] g;
+    private int[] h;
+    private int size;
+
+    NodeQueue(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.keys = new long[capacity];
+        this.g = new int[capacity];
+        this.h = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(long key, int cost, int estimate) {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            g = Arrays.copyOf(g, capacity);
+            h = Arrays.copyOf(h, capacity);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(cost, estimate, g[parent], h[parent])) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, key, cost, estimate);
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    int peekG() {
+        return g[0];
+    }
+
+    int peekH() {
+        return h[0];
+    }
+
+    void pop() {
+        size--;
+        if (size == 0) {
+            return;
+        }
+        long key = keys[size];
+        int cost = g[size];
+        int estimate = h[size];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && less(g[child + 1], h[child + 1], g[child], h[child])) {
+                child++;
+            }
+            if (!less(g[child], h[child], cost, estimate)) {
+                break;
+            }
+            move(child, index);
+            index = child;
+        }
+        set(index, key, cost, estimate);
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // ordered by f = g + h, ties go to the node closer to a solution
+    private static boolean less(int g1, int h1, int g2, int h2) {
+        int f1 = g1 + h1;
+        int f2 = g2 + h2;
+        return f1 < f2 || (f1 == f2 && h1 < h2);
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        g[to] = g[from];
+        h[to] = h[from];
+    }
+
+    private void set(int index, long key, int cost, int estimate) {
+        keys[index] = key;
+        g[index] = cost;
+        h[index] = estimate;
+    }
+}
@@ -0,0 +1,75 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Arrays;
+
+final class QueenState {
+
+    private QueenState() {
+    }
+
+    static int bitsPerQueen(int size) {
+        int bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(size - 1));
+        if ((long) bits * size > Long.SIZE) {
+            throw new IllegalArgumentException("A " + size + "x" + size + " board does not fit into a 64-bit state key");
+        }
+        return bits;
+    }
+
+    static long encode(int[] columns, int bits) {
+        long key = 0;
+        for (int row = 0; row < columns.length; row++) {
+            key |= (long) columns[row] << (row * bits);
+        }
+        return key;
+    }
+
+    static void decode(long key, int bits, int[] columns) {
+        long mask = (1L << bits) - 1;
+        for (int row = 0; row < columns.length; row++) {
+            columns[row] = (int) ((key >>> (row * bits)) & mask);
+        }
+    }
+
+    static long withColumn(long key, int bits, int row, int column) {
+        int shift = row * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        return (key & ~mask) | ((long) column << shift);
+    }
+
+    static int[] columns(int[][] board) {
+        int[] columns = new int[board.length];
+        Arrays.fill(columns, -1);
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                if (board[row][col] == 1) {
+                    if (columns[row] != -1) {
+                        throw new IllegalArgumentException("Row " + (row + 1) + " has more than one queen");
+                    }
+                    columns[row] = col;
+                }
+            }
+            if (columns[row] == -1) {
+                throw new IllegalArgumentException("Row " + (row + 1) + " has no queen");
+            }
+        }
+        return columns;
+    }
+
+    static void fill(int[] columns, int[][] board) {
+        for (int row = 0; row < columns.length; row++) {
+            Arrays.fill(board[row], 0);
+            board[row][columns[row]] = 1;
+        }
+    }
+
+    static void print(int[] columns) {
+        StringBuilder sb = new StringBuilder();
+        for (int column : columns) {
+            for (int j = 0; j < columns.length; j++) {
+                sb.append(j == column ? '1' : '0').append(' ');
+            }
+            sb.append('\n');
+        }
+        System.out.println(sb);
+    }
+}
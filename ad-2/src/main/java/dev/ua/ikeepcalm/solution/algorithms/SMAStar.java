@@ -0,0 +1,173 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+
+public class SMAStar implements Solver {
+
+    private static final long REEXPANSION_LIMIT = 1000;
+
+    private static class Node {
+        final long key;
+        final int g;
+        final int h;
+        final Node parent;
+        final long order;
+        int f;
+        int liveChildren;
+        int forgotten = Integer.MAX_VALUE;
+
+        Node(long key, int g, int h, int f, Node parent, long order) {
+            this.key = key;
+            this.g = g;
+            this.h = h;
+            this.f = f;
+            this.parent = parent;
+            this.order = order;
+        }
+    }
+
+    // best first: lowest f, then deepest; the last element is the worst leaf to forget
+    private static final Comparator<Node> ORDER = Comparator.<Node>comparingInt(n -> n.f)
+            .thenComparingInt(n -> -n.g)
+            .thenComparingLong(n -> n.order);
+
+    private final int nodeBudget;
+    private final SearchObserver observer;
+
+    public SMAStar(int nodeBudget) {
+        this(nodeBudget, SearchObserver.NONE);
+    }
+
+    public SMAStar(int nodeBudget, SearchObserver observer) {
+        if (nodeBudget < 2) {
+            throw new IllegalArgumentException("SMA* needs room for at least two nodes");
+        }
+        this.nodeBudget = nodeBudget;
+        this.observer = observer;
+    }
+
+    @Override
+    public String getName() {
+        return "SMAStar";
+    }
+
+    @Override
+    public SearchStats solve(int[][] initialBoard) {
+        long start = System.nanoTime();
+        long expansions = 0;
+        long nodes = 0;
+
+        int size = initialBoard.length;
+        int bits = QueenState.bitsPerQueen(size);
+        int[] columns = QueenState.columns(initialBoard);
+        observer.started(columns);
+        if (size == 2 || size == 3) {
+            return new SearchStats(false, 0, 0, 0, System.nanoTime() - start);
+        }
+        LineCounts lines = new LineCounts(size);
+
+        TreeSet<Node> openList = new TreeSet<>(ORDER);
+        lines.count(columns);
+        int rootH = lines.attackingPairs();
+        long order = 0;
+        openList.add(new Node(QueenState.encode(columns, bits), 0, rootH, rootH, null, order++));
+        int nodesInMemory = 1;
+        long peak = 1;
+        nodes++;
+        long expansionLimit = nodeBudget * REEXPANSION_LIMIT;
+
+        while (!openList.isEmpty() && expansions < expansionLimit) {
+            expansions++;
+            Node best = openList.pollFirst();
+
+            QueenState.decode(best.key, bits, columns);
+            if (best.h == 0) {
+                QueenState.fill(columns, initialBoard);
+                observer.solved(columns);
+                return new SearchStats(true, nodes, expansions, peak, System.nanoTime() - start);
+            }
+
+            lines.count(columns);
+            for (int row = 0; row < size; row++) {
+                int from = columns[row];
+                int removed = best.h - lines.attacks(row, from, from);
+                for (int col = 0; col < size; col++) {
+                    if (col == from) {
+                        continue;
+                    }
+                    long key = QueenState.withColumn(best.key, bits, row, col);
+                    if (onPath(best, key)) {
+                        continue;
+                    }
+                    int h = removed + lines.attacks(row, col, from);
+                    Node child = new Node(key, best.g + 1, h, Math.max(best.f, best.g + 1 + h), best, order++);
+                    nodes++;
+                    if (nodesInMemory >= nodeBudget) {
+                        if (openList.isEmpty()) {
+                            // the path alone fills the budget, nothing below this depth can be kept
+                            continue;
+                        }
+                        if (ORDER.compare(child, openList.last()) > 0) {
+                            // the child would be the first leaf to go, so only its f is remembered
+                            best.forgotten = Math.min(best.forgotten, child.f);
+                            continue;
+                        }
+                        // counted first so evicting a sibling never turns best back into a leaf
+                        best.liveChildren++;
+                        nodesInMemory -= forget(openList.pollLast(), openList);
+                        best.liveChildren--;
+                    }
+                    openList.add(child);
+                    best.liveChildren++;
+                    nodesInMemory++;
+                    peak = Math.max(peak, nodesInMemory);
+                }
+            }
+
+            if (best.liveChildren == 0) {
+                // no child stayed in memory: back up the best forgotten one, or drop a dead end where every move
+                // leads back onto the path or past the memory depth limit
+                best.f = best.forgotten;
+                best.forgotten = Integer.MAX_VALUE;
+                if (best.f == Integer.MAX_VALUE) {
+                    nodesInMemory -= forget(best, openList);
+                } else {
+                    openList.add(best);
+                }
+            }
+            observer.expanded(columns);
+        }
+
+        return new SearchStats(false, nodes, expansions, peak, System.nanoTime() - start);
+    }
+
+    private static boolean onPath(Node node, long key) {
+        for (Node ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor.key == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // drops a leaf and backs its f up into the parent, which becomes a leaf again once all its children are gone;
+    // returns how many nodes left memory
+    private static int forget(Node leaf, TreeSet<Node> openList) {
+        Node parent = leaf.parent;
+        if (parent == null) {
+            return 1;
+        }
+        parent.forgotten = Math.min(parent.forgotten, leaf.f);
+        if (--parent.liveChildren > 0) {
+            return 1;
+        }
+        parent.f = parent.forgotten;
+        parent.forgotten = Integer.MAX_VALUE;
+        if (parent.f == Integer.MAX_VALUE) {
+            return 1 + forget(parent, openList);
+        }
+        openList.add(parent);
+        return 1;
+    }
+}
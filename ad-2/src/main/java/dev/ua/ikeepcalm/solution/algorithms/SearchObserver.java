@@ -0,0 +1,19 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+public interface SearchObserver {
+
+    SearchObserver NONE = new SearchObserver() {
+    };
+
+    default void started(int[] columns) {
+    }
+
+    default void expanded(int[] columns) {
+    }
+
+    default void backtracked(int[] columns) {
+    }
+
+    default void solved(int[] columns) {
+    }
+}
@@ -0,0 +1,11 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+// peakFrontier is the largest number of nodes the search held at once
+public record SearchStats(boolean solved, long nodes, long expansions, long peakFrontier, long elapsedNanos) {
+
+    @Override
+    public String toString() {
+        return String.format("solved=%s nodes=%d expansions=%d peakFrontier=%d elapsed=%.3fms",
+                solved, nodes, expansions, peakFrontier, elapsedNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+public interface Solver {
+
+    String getName();
+
+    // solves the board in place; safe to call from several threads at once
+    SearchStats solve(int[][] board);
+}
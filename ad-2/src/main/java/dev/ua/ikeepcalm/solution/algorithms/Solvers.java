@@ -0,0 +1,33 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import java.util.List;
+
+public class Solvers {
+
+    public static final long DEFAULT_IDA_BUDGET = 100_000_000;
+    public static final int DEFAULT_SMA_BUDGET = 10_000;
+
+    // every solver with its default settings, a new solver only has to be listed here to show up in the benchmarks
+    public static List<Solver> all() {
+        return List.of(
+                new LDFS(),
+                new AStar(),
+                new IDAStar(DEFAULT_IDA_BUDGET),
+                new SMAStar(DEFAULT_SMA_BUDGET),
+                new MinConflicts()
+        );
+    }
+
+    public static List<String> names() {
+        return all().stream().map(Solver::getName).toList();
+    }
+
+    public static Solver byName(String name) {
+        for (Solver solver : all()) {
+            if (solver.getName().equalsIgnoreCase(name)) {
+                return solver;
+            }
+        }
+        throw new IllegalArgumentException("Unknown solver " + name);
+    }
+}
@@ -0,0 +1,104 @@
+package dev.ua.ikeepcalm.solution;
+
+import dev.ua.ikeepcalm.solution.algorithms.AStar;
+import dev.ua.ikeepcalm.solution.algorithms.MinConflicts;
+import dev.ua.ikeepcalm.solution.algorithms.SearchStats;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchBenchmarkTest {
+    private static final int COLUMNS = BatchBenchmark.CSV_HEADER.split(",").length;
+
+    @Test
+    void percentileTakesTheNearestRank() {
+        long[] sorted = {15_000, 20_000, 35_000, 40_000, 50_000};
+        assertEquals(15.0, BatchBenchmark.percentile(sorted, 5, 0.0));
+        assertEquals(20.0, BatchBenchmark.percentile(sorted, 5, 0.30));
+        assertEquals(20.0, BatchBenchmark.percentile(sorted, 5, 0.40));
+        assertEquals(35.0, BatchBenchmark.percentile(sorted, 5, 0.50));
+        assertEquals(50.0, BatchBenchmark.percentile(sorted, 5, 0.99));
+        assertEquals(50.0, BatchBenchmark.percentile(sorted, 5, 1.0));
+    }
+
+    @Test
+    void percentileOnlyLooksAtTheFilledEntries() {
+        long[] sorted = {1_000, 2_000, 0, 0};
+        assertEquals(2.0, BatchBenchmark.percentile(sorted, 2, 1.0));
+    }
+
+    @Test
+    void singleSampleIsEveryPercentile() {
+        long[] sorted = {7_500};
+        for (double p : new double[]{0.0, 0.5, 0.9, 0.99, 1.0}) {
+            assertEquals(7.5, BatchBenchmark.percentile(sorted, 1, p));
+        }
+    }
+
+    @Test
+    void emptySampleReportsZero() {
+        assertEquals(0.0, BatchBenchmark.percentile(new long[0], 0, 0.5));
+    }
+
+    @Test
+    void rowAveragesEverySample() {
+        BatchBenchmark.Result result = new BatchBenchmark.Result(2);
+        result.add(new BatchBenchmark.Sample(new SearchStats(true, 10, 4, 6, 3_000), 100));
+        result.add(new BatchBenchmark.Sample(new SearchStats(false, 20, 6, 2, 1_000), 300));
+        result.wallNanos = 2_000_000;
+        String row = result.toCsv("AStar", 8, 4);
+        assertEquals("AStar,8,2,4,1,1000.0,1.0,3.0,3.0,3.0,15.0,5.0,4.0,200", row);
+        assertEquals(COLUMNS, row.split(",").length);
+    }
+
+    @Test
+    void singleSampleRow() {
+        BatchBenchmark.Result result = new BatchBenchmark.Result(1);
+        result.add(new BatchBenchmark.Sample(new SearchStats(true, 9, 3, 5, 2_500), 64));
+        result.wallNanos = 5_000;
+        assertEquals("LDFS,8,1,1,1,200000.0,2.5,2.5,2.5,2.5,9.0,3.0,5.0,64", result.toCsv("LDFS", 8, 1));
+    }
+
+    @Test
+    void emptyRowIsAllZeros() {
+        String row = new BatchBenchmark.Result(0).toCsv("AStar", 8, 4);
+        assertEquals("AStar,8,0,4,0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0.0,0", row);
+        assertEquals(COLUMNS, row.split(",").length);
+    }
+
+    @Test
+    void runWritesTheHeaderAndOneRowPerSolver() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchBenchmark benchmark = new BatchBenchmark(8, 10, 42, 2);
+        benchmark.setWarmupRounds(0);
+        benchmark.run(List.of(new AStar(), new MinConflicts(1)), new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\\R");
+        assertEquals(3, lines.length);
+        assertEquals(BatchBenchmark.CSV_HEADER, lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            String[] columns = lines[i].split(",");
+            assertEquals(COLUMNS, columns.length);
+            // boards and solved
+            assertEquals("10", columns[2]);
+            assertEquals("10", columns[4]);
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSameBoards() {
+        assertArrayEquals(BatchBenchmark.boards(8, 5, 3), BatchBenchmark.boards(8, 5, 3));
+    }
+
+    @Test
+    void emptyBatchesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchBenchmark(8, 0, 1, 1));
+    }
+}
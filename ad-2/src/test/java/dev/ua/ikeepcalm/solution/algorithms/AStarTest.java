@@ -0,0 +1,66 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import dev.ua.ikeepcalm.solution.EightQueens;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AStarTest {
+
+    @Test
+    void solvesSeededEightByEightBoards() {
+        Random random = new Random(1);
+        AStar solver = new AStar();
+        for (int i = 0; i < 20; i++) {
+            int[][] board = EightQueens.randomBoard(8, random);
+            assertTrue(solver.solve(board).solved());
+            Boards.assertSolved(board);
+        }
+    }
+
+    @Test
+    void boardOneMoveFromASolutionTakesOneExpansion() {
+        int[] solution = {0, 4, 7, 5, 2, 6, 1, 3};
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (col == solution[row]) {
+                    continue;
+                }
+                int[] columns = solution.clone();
+                columns[row] = col;
+                int[][] board = new int[8][8];
+                QueenState.fill(columns, board);
+
+                // the root is expanded into all 56 neighbours, and only a correctly scored one can pop next with h = 0
+                SearchStats stats = new AStar().solve(board);
+                assertTrue(stats.solved());
+                assertEquals(1 + 8 * 7, stats.nodes());
+                assertEquals(2, stats.expansions());
+                Boards.assertSolved(board);
+            }
+        }
+    }
+
+    @Test
+    void closedSetNeverExpandsAStateTwice() {
+        Random random = new Random(2);
+        for (int i = 0; i < 10; i++) {
+            int[][] board = EightQueens.randomBoard(8, random);
+            LongHashSet expanded = new LongHashSet(16);
+            SearchObserver observer = new SearchObserver() {
+                @Override
+                public void expanded(int[] columns) {
+                    assertTrue(expanded.add(QueenState.encode(columns, 3)), "state expanded twice");
+                }
+            };
+            SearchStats stats = new AStar(observer).solve(board);
+            assertTrue(stats.solved());
+            // a queued duplicate is popped and dropped, so pops can outnumber distinct expansions but never the pushes
+            assertTrue(expanded.size() <= stats.expansions());
+            assertTrue(stats.expansions() <= stats.nodes());
+        }
+    }
+}
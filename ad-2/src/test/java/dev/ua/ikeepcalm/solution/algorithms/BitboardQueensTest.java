@@ -0,0 +1,45 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BitboardQueensTest {
+
+    private static final long[] KNOWN_COUNTS = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724, 2680, 14200};
+
+    @Test
+    void countsMatchKnownSolutionCounts() {
+        for (int n = 1; n <= KNOWN_COUNTS.length; n++) {
+            assertEquals(KNOWN_COUNTS[n - 1], BitboardQueens.countSolutions(n), "n = " + n);
+        }
+    }
+
+    @Test
+    void enumeratesEveryDistinctSolution() {
+        Set<List<Integer>> seen = ConcurrentHashMap.newKeySet();
+        long count = BitboardQueens.enumerateSolutions(8, columns -> {
+            Boards.assertSolved(columns);
+            seen.add(toList(columns));
+        });
+        assertEquals(92, count);
+        assertEquals(92, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void rejectsSizesOutsideTheBitboard() {
+        assertThrows(IllegalArgumentException.class, () -> BitboardQueens.countSolutions(0));
+        assertThrows(IllegalArgumentException.class, () -> BitboardQueens.countSolutions(BitboardQueens.MAX_N + 1));
+    }
+
+    private static List<Integer> toList(int[] columns) {
+        return Arrays.stream(columns).boxed().toList();
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class Boards {
+
+    private Boards() {
+    }
+
+    // every queen in the first column, a start for sizes without any solution
+    static int[][] firstColumnBoard(int n) {
+        int[][] board = new int[n][n];
+        for (int[] row : board) {
+            row[0] = 1;
+        }
+        return board;
+    }
+
+    static int attackingPairs(int[] columns) {
+        int pairs = 0;
+        for (int i = 0; i < columns.length; i++) {
+            for (int j = i + 1; j < columns.length; j++) {
+                if (columns[i] == columns[j] || Math.abs(columns[i] - columns[j]) == j - i) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    // linear, so it also checks boards far too large for attackingPairs
+    static void assertSolved(int[] columns) {
+        int n = columns.length;
+        boolean[] usedColumns = new boolean[n];
+        boolean[] usedDiagonals = new boolean[2 * n - 1];
+        boolean[] usedAntiDiagonals = new boolean[2 * n - 1];
+        for (int row = 0; row < n; row++) {
+            int column = columns[row];
+            assertTrue(column >= 0 && column < n, "row " + row + " has no queen on the board");
+            assertFalse(usedColumns[column], "column " + column + " holds two queens");
+            assertFalse(usedDiagonals[row + column], "diagonal through row " + row + " holds two queens");
+            assertFalse(usedAntiDiagonals[row - column + n - 1], "anti-diagonal through row " + row + " holds two queens");
+            usedColumns[column] = true;
+            usedDiagonals[row + column] = true;
+            usedAntiDiagonals[row - column + n - 1] = true;
+        }
+    }
+
+    static void assertSolved(int[][] board) {
+        assertSolved(QueenState.columns(board));
+    }
+}
@@ -0,0 +1,65 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import dev.ua.ikeepcalm.solution.EightQueens;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IDAStarTest {
+
+    @Test
+    void solvesSeededEightByEightBoards() {
+        Random random = new Random(1);
+        IDAStar solver = new IDAStar(Solvers.DEFAULT_IDA_BUDGET);
+        for (int i = 0; i < 20; i++) {
+            int[][] board = EightQueens.randomBoard(8, random);
+            assertTrue(solver.solve(board).solved());
+            Boards.assertSolved(board);
+        }
+    }
+
+    @Test
+    void exhaustedBudgetLeavesTheBoardAlone() {
+        Random random = new Random(2);
+        IDAStar solver = new IDAStar(20);
+        int unsolved = 0;
+        for (int i = 0; i < 20; i++) {
+            int[][] board = EightQueens.randomBoard(8, random);
+            int[] before = QueenState.columns(board);
+            SearchStats stats = solver.solve(board);
+            assertTrue(stats.nodes() <= 20);
+            if (stats.solved()) {
+                Boards.assertSolved(board);
+            } else {
+                // a budget that runs out mid-path must not leave the half-explored path behind
+                assertArrayEquals(before, QueenState.columns(board));
+                unsolved++;
+            }
+        }
+        assertTrue(unsolved > 0);
+    }
+
+    @Test
+    void boardsWithoutASolutionStopAtOnce() {
+        for (int n : new int[]{2, 3}) {
+            SearchStats stats = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> new IDAStar(Solvers.DEFAULT_IDA_BUDGET).solve(Boards.firstColumnBoard(n)));
+            assertFalse(stats.solved(), "n = " + n);
+            assertEquals(0, stats.expansions());
+        }
+    }
+
+    @Test
+    void singleQueenIsAlreadySolved() {
+        SearchStats stats = new IDAStar(1).solve(new int[][]{{1}});
+        assertTrue(stats.solved());
+        assertEquals(0, stats.nodes());
+    }
+}
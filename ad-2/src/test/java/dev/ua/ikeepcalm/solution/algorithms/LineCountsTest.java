@@ -0,0 +1,66 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LineCountsTest {
+
+    @Test
+    void countMatchesBruteForce() {
+        Random random = new Random(5);
+        for (int n = 1; n <= 16; n++) {
+            int[] columns = random.ints(n, 0, n).toArray();
+            LineCounts lines = new LineCounts(n);
+            lines.count(columns);
+            assertEquals(Boards.attackingPairs(columns), lines.attackingPairs());
+        }
+    }
+
+    @Test
+    void everyNeighbourScoresFromTheParentCounts() {
+        Random random = new Random(9);
+        for (int n = 4; n <= 12; n++) {
+            int[] columns = random.ints(n, 0, n).toArray();
+            LineCounts lines = new LineCounts(n);
+            lines.count(columns);
+            int h = lines.attackingPairs();
+            // the parent counts stay untouched while all n * (n - 1) neighbours are scored, as AStar expands a node
+            for (int row = 0; row < n; row++) {
+                int from = columns[row];
+                int removed = h - lines.attacks(row, from, from);
+                for (int col = 0; col < n; col++) {
+                    int[] neighbour = columns.clone();
+                    neighbour[row] = col;
+                    assertEquals(Boards.attackingPairs(neighbour), removed + lines.attacks(row, col, from),
+                            "n = " + n + ", row " + row + " to column " + col);
+                }
+            }
+            assertEquals(h, lines.attackingPairs());
+        }
+    }
+
+    @Test
+    void incrementalScoreMatchesBruteForceAfterRandomMoves() {
+        Random random = new Random(7);
+        for (int n = 4; n <= 20; n += 4) {
+            int[] columns = random.ints(n, 0, n).toArray();
+            LineCounts lines = new LineCounts(n);
+            lines.count(columns);
+            int h = lines.attackingPairs();
+            for (int step = 0; step < 2_000; step++) {
+                int row = random.nextInt(n);
+                int from = columns[row];
+                int to = random.nextInt(n);
+                // the same formula AStar, IDAStar and SMAStar use to score a neighbour
+                h = h - lines.attacks(row, from, from) + lines.attacks(row, to, from);
+                lines.move(row, from, to);
+                columns[row] = to;
+                assertEquals(Boards.attackingPairs(columns), h, "n = " + n + ", step " + step);
+                assertEquals(h, lines.attackingPairs());
+            }
+        }
+    }
+}
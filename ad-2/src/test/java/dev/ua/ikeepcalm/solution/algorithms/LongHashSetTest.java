@@ -0,0 +1,45 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void behavesLikeAHashSetThroughResizes() {
+        Random random = new Random(11);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(20_000) - 10_000L;
+            assertEquals(expected.add(key), set.add(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long key = -12_000; key < 12_000; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "key " + key);
+        }
+    }
+
+    @Test
+    void keyZeroIsARealState() {
+        // every queen in the first column packs to 0, which the table also uses to mark free slots
+        long key = QueenState.encode(new int[8], 3);
+        LongHashSet set = new LongHashSet(4);
+        assertFalse(set.contains(key));
+        assertTrue(set.add(key));
+        assertFalse(set.add(key));
+        assertTrue(set.contains(key));
+        assertEquals(1, set.size());
+
+        set.clear();
+        assertFalse(set.contains(key));
+        assertEquals(0, set.size());
+    }
+}
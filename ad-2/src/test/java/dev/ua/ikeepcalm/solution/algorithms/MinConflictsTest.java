@@ -0,0 +1,82 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import dev.ua.ikeepcalm.solution.EightQueens;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class MinConflictsTest {
+
+    @Test
+    void repairsRandomBoardsIntoValidSolutions() {
+        Random random = new Random(1);
+        MinConflicts solver = new MinConflicts(3);
+        for (int n : new int[]{1, 4, 5, 8, 13, 32}) {
+            for (int i = 0; i < 20; i++) {
+                int[][] board = EightQueens.randomBoard(n, random);
+                assertTrue(solver.solve(board).solved(), "n = " + n);
+                Boards.assertSolved(board);
+            }
+        }
+    }
+
+    @Test
+    void placesLargeBoards() {
+        int[] columns = new int[100_000];
+        assertTrue(new MinConflicts(9).place(columns).solved());
+        Boards.assertSolved(columns);
+    }
+
+    @Test
+    void placesAMillionQueensInSeconds() {
+        int[] columns = new int[1_000_000];
+        SearchStats stats = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> new MinConflicts(4).place(columns));
+        assertTrue(stats.solved());
+        Boards.assertSolved(columns);
+    }
+
+    @Test
+    void sameSeedRepairsTheSameBoardTheSameWay() {
+        for (int n : new int[]{8, 50, 5_000}) {
+            int[] start = new Random(n).ints(n, 0, n).toArray();
+            int[] first = start.clone();
+            int[] second = start.clone();
+            SearchStats firstStats = new MinConflicts(17).solve(first);
+            SearchStats secondStats = new MinConflicts(17).solve(second);
+            assertArrayEquals(first, second, "n = " + n);
+            assertEquals(firstStats.nodes(), secondStats.nodes());
+            assertEquals(firstStats.expansions(), secondStats.expansions());
+        }
+    }
+
+    @Test
+    void startsFromTheEightQueensBoard() {
+        EightQueens queens = new EightQueens();
+        int[][] board = queens.getBoard();
+        assertTrue(new MinConflicts(5).solve(board).solved());
+        // the solution is written back into the very board it started from
+        assertSame(board, queens.getBoard());
+        Boards.assertSolved(queens.getBoard());
+    }
+
+    @Test
+    void alreadySolvedBoardIsLeftAlone() {
+        int[] columns = {1, 3, 0, 2};
+        assertTrue(new MinConflicts(6).solve(columns).solved());
+        assertArrayEquals(new int[]{1, 3, 0, 2}, columns);
+    }
+
+    @Test
+    void reportsUnsolvableSizes() {
+        assertFalse(new MinConflicts().place(new int[2]).solved());
+        assertFalse(new MinConflicts().place(new int[3]).solved());
+    }
+}
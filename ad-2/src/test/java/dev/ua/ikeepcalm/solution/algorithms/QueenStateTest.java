@@ -0,0 +1,62 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueenStateTest {
+
+    @Test
+    void eightQueensPackIntoTwentyFourBits() {
+        assertEquals(3, QueenState.bitsPerQueen(8));
+        int[] columns = {7, 7, 7, 7, 7, 7, 7, 7};
+        assertEquals((1L << 24) - 1, QueenState.encode(columns, 3));
+    }
+
+    @Test
+    void keysRoundTripForEveryBoardThatFits() {
+        Random random = new Random(1);
+        // sixteen queens of four bits fill the long exactly
+        for (int n = 1; n <= 16; n++) {
+            int bits = QueenState.bitsPerQueen(n);
+            for (int i = 0; i < 100; i++) {
+                int[] columns = random.ints(n, 0, n).toArray();
+                int[] decoded = new int[n];
+                QueenState.decode(QueenState.encode(columns, bits), bits, decoded);
+                assertArrayEquals(columns, decoded, "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void withColumnMovesOneQueenInsideTheKey() {
+        Random random = new Random(2);
+        int n = 12;
+        int bits = QueenState.bitsPerQueen(n);
+        int[] columns = random.ints(n, 0, n).toArray();
+        long key = QueenState.encode(columns, bits);
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                int[] moved = columns.clone();
+                moved[row] = col;
+                assertEquals(QueenState.encode(moved, bits), QueenState.withColumn(key, bits, row, col));
+            }
+        }
+    }
+
+    @Test
+    void boardsTooLargeForALongAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> QueenState.bitsPerQueen(17));
+    }
+
+    @Test
+    void boardsNeedExactlyOneQueenPerRow() {
+        assertThrows(IllegalArgumentException.class, () -> QueenState.columns(new int[][]{{1, 1}, {0, 1}}));
+        assertThrows(IllegalArgumentException.class, () -> QueenState.columns(new int[][]{{1, 0}, {0, 0}}));
+        assertArrayEquals(new int[]{1, 0}, QueenState.columns(new int[][]{{0, 1}, {1, 0}}));
+    }
+}
@@ -0,0 +1,62 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import dev.ua.ikeepcalm.solution.EightQueens;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SMAStarTest {
+
+    @Test
+    void solvesSeededEightByEightBoards() {
+        Random random = new Random(1);
+        SMAStar solver = new SMAStar(Solvers.DEFAULT_SMA_BUDGET);
+        for (int i = 0; i < 20; i++) {
+            int[][] board = EightQueens.randomBoard(8, random);
+            SearchStats stats = solver.solve(board);
+            assertTrue(stats.solved());
+            assertTrue(stats.peakFrontier() <= Solvers.DEFAULT_SMA_BUDGET);
+            Boards.assertSolved(board);
+        }
+    }
+
+    @Test
+    void peakNeverExceedsTheNodeBudget() {
+        Random random = new Random(2);
+        for (int budget : new int[]{2, 3, 8, 57, 200}) {
+            SMAStar solver = new SMAStar(budget);
+            for (int i = 0; i < 10; i++) {
+                int[][] board = EightQueens.randomBoard(8, random);
+                int[] before = QueenState.columns(board);
+                SearchStats stats = solver.solve(board);
+                assertTrue(stats.peakFrontier() <= budget, "budget " + budget + ", peak " + stats.peakFrontier());
+                if (stats.solved()) {
+                    Boards.assertSolved(board);
+                } else {
+                    assertArrayEquals(before, QueenState.columns(board));
+                }
+            }
+        }
+    }
+
+    @Test
+    void boardsWithoutASolutionStopAtOnce() {
+        for (int n : new int[]{2, 3}) {
+            SearchStats stats = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> new SMAStar(Solvers.DEFAULT_SMA_BUDGET).solve(Boards.firstColumnBoard(n)));
+            assertFalse(stats.solved(), "n = " + n);
+        }
+    }
+
+    @Test
+    void budgetMustHoldTwoNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new SMAStar(1));
+    }
+}
@@ -0,0 +1,87 @@
+package dev.ua.ikeepcalm.solution.algorithms;
+
+import dev.ua.ikeepcalm.solution.EightQueens;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolversTest {
+    private static final int BOARDS = 64;
+    private static final int THREADS = 8;
+
+    @Test
+    void oneInstanceSolvesManyBoardsAtOnce() throws InterruptedException, ExecutionException {
+        Random random = new Random(1);
+        List<int[][]> boards = new ArrayList<>();
+        for (int i = 0; i < BOARDS; i++) {
+            boards.add(EightQueens.randomBoard(8, random));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Solver registered : Solvers.all()) {
+                // a fixed seed makes min-conflicts repeatable per board, like every other solver
+                Solver solver = registered instanceof MinConflicts ? new MinConflicts(7) : registered;
+                List<int[][]> solved = new ArrayList<>();
+                List<Future<SearchStats>> results = new ArrayList<>();
+                for (int[][] board : boards) {
+                    int[][] copy = copy(board);
+                    solved.add(copy);
+                    results.add(executor.submit(() -> solver.solve(copy)));
+                }
+
+                for (int i = 0; i < BOARDS; i++) {
+                    SearchStats stats = results.get(i).get();
+                    String name = solver.getName() + " board " + i;
+                    assertTrue(stats.solved(), name);
+                    assertTrue(stats.elapsedNanos() > 0, name);
+                    assertTrue(stats.nodes() + stats.expansions() > 0, name);
+                    Boards.assertSolved(solved.get(i));
+
+                    // the counters depend on the board alone, never on what ran next to it or before it
+                    SearchStats alone = solver.solve(copy(boards.get(i)));
+                    assertTrue(sameCounters(alone, stats), name + ": " + stats + " alone was " + alone);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void everyListedNameResolves() {
+        for (String name : Solvers.names()) {
+            assertEquals(name, Solvers.byName(name).getName());
+            assertEquals(name, Solvers.byName(name.toLowerCase()).getName());
+        }
+        assertEquals(Solvers.all().size(), Solvers.names().stream().distinct().count());
+    }
+
+    @Test
+    void unknownNameIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Solvers.byName("Dijkstra"));
+    }
+
+    private static boolean sameCounters(SearchStats a, SearchStats b) {
+        return a.solved() == b.solved() && a.nodes() == b.nodes() && a.expansions() == b.expansions()
+                && a.peakFrontier() == b.peakFrontier();
+    }
+
+    private static int[][] copy(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int i = 0; i < board.length; i++) {
+            copy[i] = board[i].clone();
+        }
+        return copy;
+    }
+}